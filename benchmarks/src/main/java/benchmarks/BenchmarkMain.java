@@ -0,0 +1,29 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ベンチマークの起動クラス
+ * 結果の出力形式・出力先が指定されていない場合は、JSON形式で jmh-result.json に出力する(リリース間の比較用)
+ *
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add("jmh-result.json");
+        }
+
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+
+}
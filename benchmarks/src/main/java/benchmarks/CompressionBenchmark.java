@@ -0,0 +1,185 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import filters.CompressionFilter;
+
+/**
+ * レスポンスの圧縮にかかる1リクエストあたりの時間のベンチマーク
+ * 終了時に、圧縮前後のサイズ(1リクエストあたりの削減バイト数)を出力する
+ * page: list=日報一覧(15件)、detail=内容の長い日報の詳細画面
+ * encoding: identity=圧縮しない(Filterを通すのみ)、gzip、deflate
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+    /**
+     * 送信したバイト数を数える出力先(内容は破棄する)
+     */
+    static class CountingOutputStream extends ServletOutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+
+    @Param({ "list", "detail" })
+    public String page;
+
+    @Param({ "identity", "gzip", "deflate" })
+    public String encoding;
+
+    private CompressionFilter filter;
+
+    private HttpServletRequest request;
+
+    private FilterChain chain;
+
+    private String html;
+
+    private int htmlBytes;
+
+    private long requests;
+
+    private CountingOutputStream out;
+
+    @Setup
+    public void setup() throws ServletException {
+        filter = new CompressionFilter();
+        filter.init(null);
+
+        html = "list".equals(page) ? listPage() : detailPage();
+        htmlBytes = html.getBytes(StandardCharsets.UTF_8).length;
+
+        request = Stubs.request("/", Collections.emptyMap(), Stubs.session(Collections.emptyMap()),
+                Collections.singletonMap("Accept-Encoding", encoding));
+
+        //JSPと同様に、8KBずつWriterに書き込む
+        chain = (req, res) -> {
+            PrintWriter writer = res.getWriter();
+            for (int i = 0; i < html.length(); i += 8192) {
+                writer.write(html, i, Math.min(8192, html.length() - i));
+            }
+            writer.close();
+        };
+        out = new CountingOutputStream();
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        long sent = out.count / Math.max(requests, 1);
+        System.out.printf("%n%s/%s: %d -> %d bytes per request (%.1f%% saved)%n",
+                page, encoding, htmlBytes, sent, 100.0 * (htmlBytes - sent) / htmlBytes);
+    }
+
+    @Benchmark
+    public long compress() throws IOException, ServletException {
+        HttpServletResponse response = Stubs.response(out, "text/html;charset=UTF-8");
+        filter.doFilter(request, response, chain);
+        requests++;
+        return out.count;
+    }
+
+    /**
+     * 日報一覧画面と同程度の内容のHTMLを作成する
+     */
+    private static String listPage() {
+        StringBuilder sb = new StringBuilder(header());
+        sb.append("<h2>日報 一覧</h2>\n<table id=\"report_list\">\n<tbody>\n<tr>\n")
+                .append("<th class=\"report_name\">氏名</th>\n<th class=\"report_date\">日付</th>\n")
+                .append("<th class=\"report_title\">タイトル</th>\n<th class=\"report_likes\">いいね数</th>\n")
+                .append("<th class=\"report_action\">操作</th>\n</tr>\n");
+        for (int i = 0; i < 15; i++) {
+            int id = 1000 - i;
+            sb.append("<tr class=\"row").append(i % 2).append("\">\n")
+                    .append("<td class=\"report_name\">従業員").append(id % 97).append("</td>\n")
+                    .append("<td class=\"report_date\">2026-10-").append(10 + i % 9).append("</td>\n")
+                    .append("<td class=\"report_title\">").append(id).append("件目の日報 進捗報告</td>\n")
+                    .append("<td class=\"report_likes\"><a href=\"/?action=Report&amp;command=showLikes&amp;id=")
+                    .append(id).append("\">").append(i * 3 % 11).append("</a></td>\n")
+                    .append("<td class=\"report_action\"><a href=\"/?action=Report&amp;command=show&amp;id=")
+                    .append(id).append("\">詳細を見る</a></td>\n</tr>\n");
+        }
+        sb.append("</tbody>\n</table>\n<div id=\"pagination\">\n（全 1000 件）<br />\n");
+        for (int i = 1; i <= 67; i++) {
+            sb.append("<a href=\"/?action=Report&amp;command=index&amp;page=").append(i).append("\">").append(i)
+                    .append("</a>&nbsp;\n");
+        }
+        return sb.append("</div>\n").append(footer()).toString();
+    }
+
+    /**
+     * 内容の長い日報の詳細画面と同程度の内容のHTMLを作成する
+     */
+    private static String detailPage() {
+        StringBuilder sb = new StringBuilder(header());
+        sb.append("<h2>日報 詳細ページ</h2>\n<table>\n<tbody>\n<tr><th>氏名</th><td>従業員1</td></tr>\n")
+                .append("<tr><th>日付</th><td>2026-10-18</td></tr>\n<tr><th>内容</th><td><pre>");
+        for (int i = 0; i < 400; i++) {
+            sb.append("本日は顧客").append(i % 13).append("社を訪問し、案件").append(i)
+                    .append("の進捗と今後の対応方針について打ち合わせを行った。\n");
+        }
+        return sb.append("</pre></td></tr>\n</tbody>\n</table>\n").append(footer()).toString();
+    }
+
+    private static String header() {
+        return "<!DOCTYPE html>\n<html lang=\"ja\">\n<head>\n<meta charset=\"UTF-8\">\n<title>日報管理システム</title>\n"
+                + "<link rel=\"stylesheet\" href=\"/css/reset.css\">\n<link rel=\"stylesheet\" href=\"/css/style.css\">\n"
+                + "</head>\n<body>\n<div id=\"wrapper\">\n<div id=\"header\">\n<div id=\"header_menu\">\n"
+                + "<h1><a href=\"/?action=Top&amp;command=index\">日報管理システム</a></h1>&nbsp;&nbsp;&nbsp;\n"
+                + "<a href=\"/?action=Report&amp;command=index\">日報管理</a>&nbsp;\n</div>\n</div>\n<div id=\"content\">\n";
+    }
+
+    private static String footer() {
+        return "</div>\n<div id=\"footer\">by Takayoshi Naka</div>\n</div>\n</body>\n</html>\n";
+    }
+
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import actions.views.EmployeeConverter;
+import actions.views.EmployeeView;
+import actions.views.ReportConverter;
+import actions.views.ReportView;
+import constants.JpaConst;
+import models.Employee;
+import models.Report;
+
+/**
+ * DTOモデル⇔Viewモデルの変換処理のベンチマーク
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    /**
+     * 変換する件数
+     */
+    @Param({ "15", "1000", "100000" })
+    public int size;
+
+    private List<Employee> employees;
+
+    private List<Report> reports;
+
+    @Setup
+    public void setup() {
+        LocalDateTime now = LocalDateTime.now();
+
+        employees = new ArrayList<>(size);
+        reports = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Employee e = new Employee(i, "code" + i, "name" + i, "password" + i,
+                    JpaConst.ROLE_GENERAL, now, now, JpaConst.EMP_DEL_FALSE);
+            employees.add(e);
+            reports.add(new Report(i, e, LocalDate.now(), "title" + i, "content" + i, now, now, i % 10));
+        }
+    }
+
+    @Benchmark
+    public List<ReportView> reportToViewList() {
+        return ReportConverter.toViewList(reports);
+    }
+
+    @Benchmark
+    public List<EmployeeView> employeeToViewList() {
+        return EmployeeConverter.toViewList(employees);
+    }
+
+    @Benchmark
+    public EmployeeView employeeToView() {
+        return EmployeeConverter.toView(employees.get(0));
+    }
+
+}
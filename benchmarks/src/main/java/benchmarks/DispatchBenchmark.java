@@ -0,0 +1,121 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import actions.ActionBase;
+import constants.ForwardConst;
+import controllers.ActionRoute;
+
+/**
+ * フロントコントローラのActionクラスの解決と、ActionBase.invokeによるcommandの呼び出しのベンチマーク
+ * reflective* は起動時の対応表を導入する前のリクエストごとのリフレクション、route* は現在の実装
+ * (commandの呼び出しはどちらもリクエストのパラメータからcommandを取得するところから計測する)
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+    /**
+     * commandの呼び出しを計測するためのActionクラス(commandの処理自体は何もしない)
+     */
+    public static class NoopAction extends ActionBase {
+
+        public int calls;
+
+        @Override
+        public void process() throws ServletException, java.io.IOException {
+            invoke();
+        }
+
+        /**
+         * 変更前のActionBase.invokeと同じ手順でcommandのメソッドを呼び出す
+         */
+        public void reflectiveInvoke() throws ReflectiveOperationException {
+            String command = request.getParameter(ForwardConst.CMD.getValue());
+            Method commandMethod = getClass().getDeclaredMethod(command, new Class[0]);
+            commandMethod.invoke(this, new Object[0]);
+        }
+
+        public void show() {
+            calls++;
+        }
+    }
+
+    public String action = ForwardConst.ACT_REP.getValue();
+
+    public String command = ForwardConst.CMD_SHOW.getValue();
+
+    private Map<String, ActionRoute> routes;
+
+    private NoopAction noopAction;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        routes = ActionRoute.buildAll();
+
+        HttpServletRequest request = Stubs.request("/", Collections.singletonMap(ForwardConst.CMD.getValue(), command), null);
+        Map<String, MethodHandle> commands = ActionRoute.of(NoopAction.class).getCommands();
+        noopAction = new NoopAction();
+        noopAction.init(null, request, Stubs.response(), commands);
+    }
+
+    /**
+     * 変更前: actionの値からクラス名を組み立て、リフレクションでインスタンスを生成する
+     */
+    @Benchmark
+    public ActionBase reflectiveResolve() throws ReflectiveOperationException {
+        Class<?> type = Class.forName(String.format("actions.%sAction", action));
+        return type.asSubclass(ActionBase.class).getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * 変更後: 起動時に作成した対応表からインスタンスを生成する
+     */
+    @Benchmark
+    public ActionBase routeResolve() {
+        return routes.get(action).newAction();
+    }
+
+    /**
+     * 変更前: リクエストのcommandの値からリクエストごとにメソッドを検索して呼び出す
+     */
+    @Benchmark
+    public void reflectiveInvoke(Blackhole bh) throws ReflectiveOperationException {
+        noopAction.reflectiveInvoke();
+        bh.consume(noopAction.calls);
+    }
+
+    /**
+     * 変更後: ActionBase.invokeでリクエストのcommandの値から、起動時に作成した対応表のメソッドを呼び出す
+     */
+    @Benchmark
+    public void routeInvoke(Blackhole bh) throws Exception {
+        noopAction.process();
+        bh.consume(noopAction.calls);
+    }
+
+}
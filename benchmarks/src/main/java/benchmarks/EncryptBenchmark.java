@@ -0,0 +1,51 @@
+package benchmarks;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.EncryptUtil;
+
+/**
+ * パスワードのハッシュ化処理のベンチマーク
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncryptBenchmark {
+
+    public String plainPass = "password1234";
+
+    public String pepper = "pepper-for-benchmark";
+
+    @Benchmark
+    public String getPasswordEncrypt() {
+        return EncryptUtil.getPasswordEncrypt(plainPass, pepper);
+    }
+
+    /**
+     * 比較用: 呼び出しごとにMessageDigestを生成し、DatatypeConverterで16進数に変換する(以前の実装)
+     */
+    @Benchmark
+    public String getPasswordEncryptNewDigest() throws NoSuchAlgorithmException {
+        byte[] bytes = MessageDigest.getInstance("SHA-256").digest((plainPass + pepper).getBytes());
+        return DatatypeConverter.printHexBinary(bytes);
+    }
+
+}
@@ -0,0 +1,127 @@
+package benchmarks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import actions.views.EmployeeView;
+import constants.AttributeConst;
+import constants.ForwardConst;
+import filters.LoginFilter;
+
+/**
+ * ログインフィルタのパス判定・ログイン状態の判定のベンチマーク
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginFilterBenchmark {
+
+    private LoginFilter filter;
+
+    private HttpServletResponse response;
+
+    private FilterChain chain;
+
+    /**
+     * CSSファイルへのリクエスト
+     */
+    private HttpServletRequest cssRequest;
+
+    /**
+     * 未ログインでのログイン画面の表示
+     */
+    private HttpServletRequest loginPageRequest;
+
+    /**
+     * 未ログインでの画面表示(ログイン画面へリダイレクト)
+     */
+    private HttpServletRequest anonymousRequest;
+
+    /**
+     * セッションの無いリクエスト(ボット、ヘルスチェック等 ログイン画面へリダイレクト)
+     */
+    private HttpServletRequest noSessionRequest;
+
+    /**
+     * ログイン済での画面表示
+     */
+    private HttpServletRequest loggedInRequest;
+
+    @Setup
+    public void setup() throws ServletException {
+        filter = new LoginFilter();
+        filter.init(null);
+        response = Stubs.response();
+        chain = (req, res) -> {
+        };
+
+        Map<String, String> loginPage = new HashMap<>();
+        loginPage.put(ForwardConst.ACT.getValue(), ForwardConst.ACT_AUTH.getValue());
+        loginPage.put(ForwardConst.CMD.getValue(), ForwardConst.CMD_SHOW_LOGIN.getValue());
+
+        Map<String, String> reportIndex = new HashMap<>();
+        reportIndex.put(ForwardConst.ACT.getValue(), ForwardConst.ACT_REP.getValue());
+        reportIndex.put(ForwardConst.CMD.getValue(), ForwardConst.CMD_INDEX.getValue());
+
+        EmployeeView ev = new EmployeeView();
+        ev.setId(1);
+
+        cssRequest = Stubs.request("/css/style.css", Collections.emptyMap(),
+                Stubs.session(Collections.emptyMap()));
+        loginPageRequest = Stubs.request("/", loginPage,
+                Stubs.session(Collections.emptyMap()));
+        anonymousRequest = Stubs.request("/", reportIndex,
+                Stubs.session(Collections.emptyMap()));
+        noSessionRequest = Stubs.request("/", reportIndex, null);
+        loggedInRequest = Stubs.request("/", reportIndex,
+                Stubs.session(Collections.singletonMap(AttributeConst.LOGIN_EMP.getValue(), ev)));
+    }
+
+    @Benchmark
+    public void css() throws Exception {
+        filter.doFilter(cssRequest, response, chain);
+    }
+
+    @Benchmark
+    public void loginPage() throws Exception {
+        filter.doFilter(loginPageRequest, response, chain);
+    }
+
+    @Benchmark
+    public void anonymousRedirect() throws Exception {
+        filter.doFilter(anonymousRequest, response, chain);
+    }
+
+    @Benchmark
+    public void noSession() throws Exception {
+        filter.doFilter(noSessionRequest, response, chain);
+    }
+
+    @Benchmark
+    public void loggedIn() throws Exception {
+        filter.doFilter(loggedInRequest, response, chain);
+    }
+
+}
@@ -0,0 +1,139 @@
+package benchmarks;
+
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+/**
+ * ベンチマーク用のサーブレットAPIのスタブを作成するクラス
+ * ベンチマーク対象が参照するメソッドのみ値を返し、それ以外は何もしない(戻り値はnull、false、0)
+ *
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * リクエストのスタブを作成する
+     * @param servletPath サーブレットパス
+     * @param params リクエストパラメータ
+     * @param session セッション
+     * @return HttpServletRequest
+     */
+    public static HttpServletRequest request(String servletPath, Map<String, String> params, HttpSession session) {
+        return request(servletPath, params, session, Collections.emptyMap());
+    }
+
+    /**
+     * リクエストヘッダを指定してリクエストのスタブを作成する(メソッドはGET)
+     * @param servletPath サーブレットパス
+     * @param params リクエストパラメータ
+     * @param session セッション
+     * @param headers リクエストヘッダ
+     * @return HttpServletRequest
+     */
+    public static HttpServletRequest request(String servletPath, Map<String, String> params, HttpSession session,
+            Map<String, String> headers) {
+        RequestDispatcher dispatcher = stub(RequestDispatcher.class, null);
+        return stub(HttpServletRequest.class, (name, args) -> {
+            switch (name) {
+            case "getMethod":
+                return "GET";
+            case "getHeader":
+                return headers.get(args[0]);
+            case "getContextPath":
+                return "";
+            case "getServletPath":
+                return servletPath;
+            case "getParameter":
+                return params.get(args[0]);
+            case "getSession":
+                return session;
+            case "getRequestDispatcher":
+                return dispatcher;
+            default:
+                return null;
+            }
+        });
+    }
+
+    /**
+     * セッションのスタブを作成する
+     * @param attributes セッションスコープの値
+     * @return HttpSession
+     */
+    public static HttpSession session(Map<String, Object> attributes) {
+        return stub(HttpSession.class, (name, args) -> "getAttribute".equals(name) ? attributes.get(args[0]) : null);
+    }
+
+    /**
+     * レスポンスのスタブを作成する(リダイレクト等は何もしない)
+     * @return HttpServletResponse
+     */
+    public static HttpServletResponse response() {
+        return stub(HttpServletResponse.class, null);
+    }
+
+    /**
+     * 出力先とContent-Typeを指定してレスポンスのスタブを作成する(文字コードはUTF-8、ステータスは200)
+     * @param out 出力先
+     * @param contentType Content-Type
+     * @return HttpServletResponse
+     */
+    public static HttpServletResponse response(ServletOutputStream out, String contentType) {
+        return stub(HttpServletResponse.class, (name, args) -> {
+            switch (name) {
+            case "getOutputStream":
+                return out;
+            case "getWriter":
+                return new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            case "getContentType":
+                return contentType;
+            case "getCharacterEncoding":
+                return "UTF-8";
+            case "getStatus":
+                return HttpServletResponse.SC_OK;
+            default:
+                return null;
+            }
+        });
+    }
+
+    /**
+     * メソッド名と引数から戻り値を返す処理
+     */
+    private interface Answer {
+        Object answer(String name, Object[] args);
+    }
+
+    /**
+     * 指定したインタフェースのスタブを作成する
+     * @param type インタフェース
+     * @param answer メソッド名と引数から戻り値を返す処理(nullの場合は全てデフォルト値)
+     * @return スタブ
+     */
+    private static <T> T stub(Class<T> type, Answer answer) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (p, method, args) -> {
+            Object value = answer == null ? null : answer.answer(method.getName(), args);
+            Class<?> returnType = method.getReturnType();
+            if (value == null && returnType.isPrimitive() && returnType != void.class) {
+                //プリミティブ型の戻り値はデフォルト値(false、0)を返す
+                return Array.get(Array.newInstance(returnType, 1), 0);
+            }
+            return value;
+        });
+        return type.cast(proxy);
+    }
+
+}
@@ -0,0 +1,37 @@
+package datagen;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+/**
+ * データ生成ツールの起動クラス
+ *
+ */
+public class DataGenMain {
+
+    /**
+     * MySQLのドライバでバッチを複数行のINSERT文にまとめるための接続プロパティ
+     */
+    private static final String REWRITE_BATCHED = "rewriteBatchedStatements=true";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "--help".equals(args[0])) {
+            System.out.print(GeneratorOptions.usage());
+            return;
+        }
+        GeneratorOptions options = GeneratorOptions.parse(args);
+        System.out.println("options: " + options);
+
+        String url = options.getString("url");
+        if (url.startsWith("jdbc:mysql:") && !url.contains("rewriteBatchedStatements")) {
+            url += (url.contains("?") ? "&" : "?") + REWRITE_BATCHED;
+        }
+
+        long start = System.nanoTime();
+        try (Connection con = DriverManager.getConnection(url, options.getString("user"), options.getString("password"))) {
+            new Generator(con, options).run();
+        }
+        System.out.printf("done in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+
+}
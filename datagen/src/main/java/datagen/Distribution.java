@@ -0,0 +1,110 @@
+package datagen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 1からnまでのidを指定した分布で選ぶクラス
+ * zipf分布では、順位をシードに応じて並べ替えたidに割り当てる(id=1が常に最も選ばれるわけではない)
+ *
+ */
+public class Distribution {
+
+    /**
+     * 分布の種類
+     */
+    public enum Type {
+        UNIFORM, ZIPF
+    }
+
+    private final int n;
+
+    /**
+     * zipf分布の累積確率(順位順) 一様分布の場合はnull
+     */
+    private final double[] cdf;
+
+    /**
+     * 順位からidへの対応
+     */
+    private final int[] ids;
+
+    /**
+     * コンストラクタ
+     * @param type 分布の種類
+     * @param n idの上限
+     * @param exponent zipf分布の指数
+     * @param random 順位の並べ替えに使用する乱数
+     */
+    public Distribution(Type type, int n, double exponent, Random random) {
+        this.n = n;
+
+        if (type == Type.UNIFORM) {
+            this.cdf = null;
+            this.ids = null;
+            return;
+        }
+
+        cdf = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+
+        ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+    }
+
+    /**
+     * 分布の種類を文字列から取得する
+     * @param name uniform または zipf
+     * @return 分布の種類
+     */
+    public static Type type(String name) {
+        return Type.valueOf(name.toUpperCase());
+    }
+
+    /**
+     * idを1つ選ぶ
+     * @param random 乱数
+     * @return 1からnまでのid
+     */
+    public int next(Random random) {
+        if (cdf == null) {
+            return 1 + random.nextInt(n);
+        }
+
+        int i = Arrays.binarySearch(cdf, random.nextDouble());
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return ids[Math.min(i, n - 1)];
+    }
+
+    /**
+     * 指定した平均の幾何分布に従う件数を返却する(0件を含む)
+     * @param mean 平均
+     * @param random 乱数
+     * @return 件数
+     */
+    public static int geometric(double mean, Random random) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1.0 / (1.0 + mean);
+        return (int) Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+    }
+
+}
@@ -0,0 +1,301 @@
+package datagen;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import constants.JpaConst;
+import utils.EncryptUtil;
+
+/**
+ * 従業員・フォロー・日報・いいね・タイムラインのデータを生成し、JDBCのバッチ登録で投入するクラス
+ * 従業員・日報のidは登録済みの最大値の次から明示的に採番し、いいね・フォローから参照する
+ * (接続先URLに rewriteBatchedStatements=true を指定すると、バッチは複数行のINSERT文にまとめて送信される)
+ *
+ */
+public class Generator {
+
+    /**
+     * 生成する従業員の社員番号の接頭辞(社員番号は 接頭辞 + id)
+     */
+    public static final String CODE_PREFIX = "g";
+
+    private final Connection con;
+
+    private final GeneratorOptions options;
+
+    private final Random random;
+
+    private final int batch;
+
+    /**
+     * 日報の日時の基準(基準日の0時 同じシードなら実行日に関わらず同じデータになるようにする)
+     */
+    private final LocalDateTime base;
+
+    /**
+     * コンストラクタ
+     * @param con 投入先のDB接続
+     * @param options オプション
+     */
+    public Generator(Connection con, GeneratorOptions options) {
+        this.con = con;
+        this.options = options;
+        this.random = new Random(options.getLong("seed"));
+        this.batch = options.getInt("batch");
+        this.base = options.getDate("base-date").atStartOfDay();
+    }
+
+    /**
+     * データを生成して登録する
+     * @throws SQLException 登録に失敗した場合
+     */
+    public void run() throws SQLException {
+        con.setAutoCommit(false);
+
+        int employees = options.getInt("employees");
+        int empBase = maxId(JpaConst.TABLE_EMP, JpaConst.EMP_COL_ID);
+        int repBase = maxId(JpaConst.TABLE_REP, JpaConst.REP_COL_ID);
+        double exponent = options.getDouble("zipf-exponent");
+
+        //生成した従業員(1からemployeesまでの順位)から選ぶ分布
+        Distribution authors = new Distribution(Distribution.type(options.getString("report-distribution")), employees, exponent, random);
+        Distribution followed = new Distribution(Distribution.type(options.getString("follow-distribution")), employees, exponent, random);
+        Distribution likers = new Distribution(Distribution.type(options.getString("like-distribution")), employees, exponent, random);
+
+        insertEmployees(empBase, employees);
+        insertFollows(empBase, employees, followed);
+        insertReportsAndLikes(empBase, repBase, employees, authors, likers);
+
+        if (options.getBoolean("feeds")) {
+            insertFeeds(repBase);
+        }
+
+        //集計値は削除し、アプリケーションの初回参照時・定期再計算で登録し直させる
+        try (Statement st = con.createStatement()) {
+            st.executeUpdate("DELETE FROM " + JpaConst.TABLE_COUNTER);
+        }
+        con.commit();
+    }
+
+    private void insertEmployees(int empBase, int count) throws SQLException {
+        //全員同じパスワードのため、ハッシュ化は1回のみ行う
+        String password = EncryptUtil.getPasswordEncrypt(options.getString("login-password"), options.getString("pepper"));
+        Timestamp now = Timestamp.valueOf(base);
+        String sql = "INSERT INTO " + JpaConst.TABLE_EMP + " (" + JpaConst.EMP_COL_ID + ", " + JpaConst.EMP_COL_CODE
+                + ", " + JpaConst.EMP_COL_NAME + ", " + JpaConst.EMP_COL_PASS + ", " + JpaConst.EMP_COL_ADMIN_FLAG
+                + ", " + JpaConst.EMP_COL_CREATED_AT + ", " + JpaConst.EMP_COL_UPDATED_AT + ", " + JpaConst.EMP_COL_DELETE_FLAG
+                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        Progress progress = new Progress(JpaConst.TABLE_EMP);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                int id = empBase + i;
+                ps.setInt(1, id);
+                ps.setString(2, CODE_PREFIX + id);
+                ps.setString(3, "employee" + id);
+                ps.setString(4, password);
+                ps.setInt(5, i == 1 ? JpaConst.ROLE_ADMIN : JpaConst.ROLE_GENERAL); //最初の1人は管理者
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+                ps.setInt(8, JpaConst.EMP_DEL_FALSE);
+                ps.addBatch();
+                if (i % batch == 0) {
+                    flush(ps);
+                    progress.update(i);
+                }
+            }
+            flush(ps);
+            progress.done(count);
+        }
+    }
+
+    private void insertFollows(int empBase, int employees, Distribution followed) throws SQLException {
+        Timestamp now = Timestamp.valueOf(base);
+        double mean = options.getDouble("follows-per-employee");
+        String sql = "INSERT INTO " + JpaConst.TABLE_FOLLOW + " (" + JpaConst.FOLLOW_COL_FOLLOWING_EMP
+                + ", " + JpaConst.FOLLOW_COL_FOLLOWED_EMP + ", " + JpaConst.FOLLOW_COL_CREATED_AT
+                + ", " + JpaConst.FOLLOW_COL_UPDATED_AT + ") VALUES (?, ?, ?, ?)";
+
+        Progress progress = new Progress(JpaConst.TABLE_FOLLOW);
+        long rows = 0;
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int following = 1; following <= employees; following++) {
+                //フォローする人数は幾何分布、フォローされる従業員は指定した分布(zipfの場合は一部の従業員にフォロワーが集中する)
+                int count = Math.min(Distribution.geometric(mean, random), employees - 1);
+                Set<Integer> targets = pick(followed, count, following);
+
+                for (int target : targets) {
+                    ps.setInt(1, empBase + following);
+                    ps.setInt(2, empBase + target);
+                    ps.setTimestamp(3, now);
+                    ps.setTimestamp(4, now);
+                    ps.addBatch();
+                    if (++rows % batch == 0) {
+                        flush(ps);
+                        progress.update(rows);
+                    }
+                }
+            }
+            flush(ps);
+            progress.done(rows);
+        }
+    }
+
+    private void insertReportsAndLikes(int empBase, int repBase, int employees, Distribution authors, Distribution likers)
+            throws SQLException {
+        int reports = options.getInt("reports");
+        double likesMean = options.getDouble("likes-per-report");
+        //日報の日時は、指定した日数の範囲で古い日報から順に等間隔で割り当てる
+        long spanSeconds = options.getLong("days") * 24 * 60 * 60;
+
+        String repSql = "INSERT INTO " + JpaConst.TABLE_REP + " (" + JpaConst.REP_COL_ID + ", " + JpaConst.REP_COL_EMP
+                + ", " + JpaConst.REP_COL_REP_DATE + ", " + JpaConst.REP_COL_TITLE + ", " + JpaConst.REP_COL_CONTENT
+                + ", " + JpaConst.REP_COL_CREATED_AT + ", " + JpaConst.REP_COL_UPDATED_AT + ", " + JpaConst.REP_COL_LIKE_COUNT
+                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String likeSql = "INSERT INTO " + JpaConst.TABLE_LIKE + " (" + JpaConst.LIKE_COL_REP + ", " + JpaConst.LIKE_COL_EMP
+                + ", " + JpaConst.LIKE_COL_CREATED_AT + ", " + JpaConst.LIKE_COL_UPDATED_AT + ") VALUES (?, ?, ?, ?)";
+
+        Progress repProgress = new Progress(JpaConst.TABLE_REP);
+        long likeRows = 0;
+        try (PreparedStatement rps = con.prepareStatement(repSql);
+                PreparedStatement lps = con.prepareStatement(likeSql)) {
+
+            for (int i = 1; i <= reports; i++) {
+                int id = repBase + i;
+                LocalDateTime createdAt = base.minusSeconds(spanSeconds * (reports - i) / reports);
+                Timestamp ts = Timestamp.valueOf(createdAt);
+
+                //いいね数は幾何分布、いいねする従業員は指定した分布(同じ従業員は1回のみ)
+                Set<Integer> likes = pick(likers, Math.min(Distribution.geometric(likesMean, random), employees), 0);
+
+                rps.setInt(1, id);
+                rps.setInt(2, empBase + authors.next(random));
+                rps.setDate(3, Date.valueOf(createdAt.toLocalDate()));
+                rps.setString(4, "report" + id);
+                rps.setString(5, "content of report " + id);
+                rps.setTimestamp(6, ts);
+                rps.setTimestamp(7, ts);
+                rps.setInt(8, likes.size());
+                rps.addBatch();
+
+                for (int employee : likes) {
+                    lps.setInt(1, id);
+                    lps.setInt(2, empBase + employee);
+                    lps.setTimestamp(3, ts);
+                    lps.setTimestamp(4, ts);
+                    lps.addBatch();
+                    likeRows++;
+                }
+
+                if (i % batch == 0) {
+                    //いいねが参照する日報を先に登録する
+                    flush(rps, lps);
+                    repProgress.update(i);
+                }
+            }
+            flush(rps, lps);
+            repProgress.done(reports);
+            System.out.printf("%s: %d rows%n", JpaConst.TABLE_LIKE, likeRows);
+        }
+    }
+
+    /**
+     * 生成した日報を、作成者をフォローしている従業員のタイムラインに追加する(日報のid範囲ごとに分けて登録する)
+     */
+    private void insertFeeds(int repBase) throws SQLException {
+        int maxId = maxId(JpaConst.TABLE_REP, JpaConst.REP_COL_ID);
+        int chunk = batch * 10;
+        String sql = "INSERT INTO " + JpaConst.TABLE_FEED + " (" + JpaConst.FEED_COL_EMP + ", " + JpaConst.FEED_COL_REP + ")"
+                + " SELECT f." + JpaConst.FOLLOW_COL_FOLLOWING_EMP + ", r." + JpaConst.REP_COL_ID
+                + " FROM " + JpaConst.TABLE_REP + " r JOIN " + JpaConst.TABLE_FOLLOW + " f"
+                + " ON f." + JpaConst.FOLLOW_COL_FOLLOWED_EMP + " = r." + JpaConst.REP_COL_EMP
+                + " WHERE r." + JpaConst.REP_COL_ID + " > ? AND r." + JpaConst.REP_COL_ID + " <= ?";
+
+        Progress progress = new Progress(JpaConst.TABLE_FEED);
+        long rows = 0;
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int from = repBase; from < maxId; from += chunk) {
+                ps.setInt(1, from);
+                ps.setInt(2, Math.min(from + chunk, maxId));
+                rows += ps.executeUpdate();
+                con.commit();
+                progress.update(rows);
+            }
+        }
+        progress.done(rows);
+    }
+
+    /**
+     * 分布に従って、重複しないidを指定した件数選ぶ(除外するidは選ばない)
+     */
+    private Set<Integer> pick(Distribution distribution, int count, int exclude) {
+        Set<Integer> ids = new HashSet<>();
+        //偏りの大きい分布で件数を満たせない場合に備えて試行回数を制限する
+        for (int attempts = 0; ids.size() < count && attempts < count * 20; attempts++) {
+            int id = distribution.next(random);
+            if (id != exclude) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * バッチを順に実行してコミットする
+     */
+    private void flush(PreparedStatement... statements) throws SQLException {
+        for (PreparedStatement ps : statements) {
+            ps.executeBatch();
+        }
+        con.commit();
+    }
+
+    private int maxId(String table, String column) throws SQLException {
+        try (Statement st = con.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * 登録件数と速度を表示するクラス
+     */
+    private static class Progress {
+        private final String table;
+        private final long start = System.nanoTime();
+        private long lastPrint = start;
+
+        Progress(String table) {
+            this.table = table;
+        }
+
+        void update(long rows) {
+            long now = System.nanoTime();
+            //10秒ごとに表示する
+            if (now - lastPrint >= 10_000_000_000L) {
+                print(rows, now);
+                lastPrint = now;
+            }
+        }
+
+        void done(long rows) {
+            print(rows, System.nanoTime());
+        }
+
+        private void print(long rows, long now) {
+            double seconds = Math.max((now - start) / 1e9, 0.001);
+            System.out.printf("%s: %d rows (%.0f rows/s)%n", table, rows, rows / seconds);
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package datagen;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * データ生成のオプション(コマンドライン引数 --名前 値 で指定する)
+ *
+ */
+public class GeneratorOptions {
+
+    /**
+     * オプション名とデフォルト値
+     */
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    static {
+        DEFAULTS.put("url", "jdbc:mysql://localhost/daily_report_system?useSSL=false&allowPublicKeyRetrieval=true"); //接続先
+        DEFAULTS.put("user", "repuser"); //DBユーザー
+        DEFAULTS.put("password", "reppass"); //DBパスワード
+        DEFAULTS.put("pepper", ""); //パスワードのハッシュ化に使用するpepper文字列(application.propertiesと同じ値)
+        DEFAULTS.put("login-password", "password"); //生成する従業員のログインパスワード(全員共通)
+        DEFAULTS.put("employees", "50000"); //従業員の件数
+        DEFAULTS.put("reports", "1000000"); //日報の件数
+        DEFAULTS.put("report-distribution", "zipf"); //日報の作成者の分布(uniform/zipf)
+        DEFAULTS.put("follows-per-employee", "20"); //1人あたりのフォロー数の平均(幾何分布)
+        DEFAULTS.put("follow-distribution", "zipf"); //フォローされる従業員の分布(uniform/zipf)
+        DEFAULTS.put("likes-per-report", "3"); //1件あたりのいいね数の平均(幾何分布)
+        DEFAULTS.put("like-distribution", "zipf"); //いいねする従業員の分布(uniform/zipf)
+        DEFAULTS.put("zipf-exponent", "1.0"); //zipf分布の指数(大きいほど一部の従業員に偏る)
+        DEFAULTS.put("days", "365"); //日報の日付を分布させる日数(基準日から遡る)
+        DEFAULTS.put("base-date", "2026-01-01"); //日報の日時の基準日(yyyy-MM-dd 実行日によって生成するデータが変わらないよう固定する)
+        DEFAULTS.put("batch", "5000"); //1回のバッチ(コミット)で登録する件数
+        DEFAULTS.put("feeds", "true"); //タイムラインを作成するかどうか
+        DEFAULTS.put("seed", "1"); //乱数のシード(同じ値なら同じデータになる)
+    }
+
+    private final Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+
+    /**
+     * コマンドライン引数からオプションを作成する
+     * @param args コマンドライン引数
+     * @return オプション
+     * @throws IllegalArgumentException 不明なオプション、または値のないオプションがある場合
+     */
+    public static GeneratorOptions parse(String[] args) {
+        GeneratorOptions options = new GeneratorOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i].startsWith("--") ? args[i].substring(2) : args[i];
+            if (!DEFAULTS.containsKey(name) || i + 1 >= args.length) {
+                throw new IllegalArgumentException("unknown option or missing value: " + args[i]);
+            }
+            options.values.put(name, args[++i]);
+        }
+
+        return options;
+    }
+
+    /**
+     * オプションの一覧とデフォルト値を返却する
+     * @return 使い方の説明
+     */
+    public static String usage() {
+        StringBuilder sb = new StringBuilder("usage: java -jar datagen.jar [options]\n");
+        for (Map.Entry<String, String> e : DEFAULTS.entrySet()) {
+            sb.append(String.format("  --%-22s (default: %s)%n", e.getKey(), e.getValue()));
+        }
+        return sb.toString();
+    }
+
+    public String getString(String name) {
+        return values.get(name);
+    }
+
+    public int getInt(String name) {
+        return Integer.parseInt(values.get(name));
+    }
+
+    public long getLong(String name) {
+        return Long.parseLong(values.get(name));
+    }
+
+    public double getDouble(String name) {
+        return Double.parseDouble(values.get(name));
+    }
+
+    public boolean getBoolean(String name) {
+        return Boolean.parseBoolean(values.get(name));
+    }
+
+    public LocalDate getDate(String name) {
+        return LocalDate.parse(values.get(name));
+    }
+
+    @Override
+    public String toString() {
+        Map<String, String> shown = new LinkedHashMap<>(values);
+        shown.put("password", "****");
+        return shown.toString();
+    }
+
+}
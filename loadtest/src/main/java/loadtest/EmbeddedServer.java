@@ -0,0 +1,126 @@
+package loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.LifecycleState;
+import org.apache.catalina.WebResourceRoot;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.catalina.webresources.DirResourceSet;
+import org.apache.catalina.webresources.StandardRoot;
+
+/**
+ * 組み込みTomcatでWebアプリを起動するクラス
+ * DBはインメモリのH2(MySQLモード)を使用し、接続先等はWEB-INF/classesに重ねたapplication.propertiesで上書きする
+ *
+ */
+public class EmbeddedServer implements AutoCloseable {
+
+    /**
+     * インメモリDBの接続先
+     * (persistence.xmlのMySQL向けの接続プロパティはH2では不明な設定となるため無視させる)
+     */
+    public static final String JDBC_URL = "jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE";
+
+    public static final String JDBC_USER = "sa";
+
+    public static final String JDBC_PASSWORD = "";
+
+    /**
+     * パスワードのハッシュ化に使用するpepper文字列
+     */
+    public static final String PEPPER = "loadtest-pepper";
+
+    private final Path baseDir;
+
+    private final Tomcat tomcat;
+
+    private final Context context;
+
+    /**
+     * コンストラクタ
+     * @param webapp 展開済みのWebアプリのディレクトリ(またはwarファイル)
+     * @throws IOException 作業ディレクトリを作成できない場合
+     */
+    public EmbeddedServer(File webapp) throws IOException {
+        baseDir = Files.createTempDirectory("loadtest");
+        Path classesDir = Files.createDirectories(baseDir.resolve("classes"));
+        writeProperties(classesDir.resolve("application.properties"));
+
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0); //空いているポートを使用する
+        tomcat.getConnector();
+        tomcat.getHost().setAppBase(baseDir.toString());
+
+        context = tomcat.addWebapp("", webapp.getAbsolutePath());
+
+        //WEB-INF/classesにapplication.propertiesを重ねる
+        WebResourceRoot resources = new StandardRoot(context);
+        resources.addPreResources(new DirResourceSet(resources, "/WEB-INF/classes", classesDir.toString(), "/"));
+        context.setResources(resources);
+    }
+
+    /**
+     * サーバーを起動する
+     * @throws LifecycleException Webアプリの起動に失敗した場合
+     */
+    public void start() throws LifecycleException {
+        tomcat.start();
+
+        if (context.getState() != LifecycleState.STARTED) {
+            throw new LifecycleException("web application failed to start: " + context.getState());
+        }
+    }
+
+    /**
+     * WebアプリのURLを返却する
+     * @return URL(末尾は/)
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + tomcat.getConnector().getLocalPort() + "/";
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            tomcat.stop();
+            tomcat.destroy();
+        } finally {
+            try (Stream<Path> paths = Files.walk(baseDir)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * Webアプリの設定ファイルを作成する
+     * @param path 出力先
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private static void writeProperties(Path path) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("pepper", PEPPER);
+        p.setProperty("javax.persistence.jdbc.driver", "org.h2.Driver");
+        p.setProperty("javax.persistence.jdbc.url", JDBC_URL);
+        p.setProperty("javax.persistence.jdbc.user", JDBC_USER);
+        p.setProperty("javax.persistence.jdbc.password", JDBC_PASSWORD);
+        p.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        //集計値は投入したデータから初回参照時に計算させる(起動時の再計算を行わない)
+        p.setProperty("counter.reconcile_interval_minutes", "0");
+
+        try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            p.store(w, "loadtest");
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package loadtest;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * action/commandごとの応答時間を記録し、集計結果を出力するクラス
+ * 利用者(スレッド)ごとにインスタンスを作成し、終了後にmergeでまとめる(スレッドセーフではない)
+ *
+ */
+public class LatencyRecorder {
+
+    /**
+     * action/commandごとの記録
+     */
+    private static class Samples {
+        long[] nanos = new long[1024];
+        int count;
+        int errors;
+
+        void add(long value) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+        }
+    }
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    /**
+     * 1リクエストの結果を記録する
+     * @param label action/command
+     * @param elapsedNanos 応答時間(ナノ秒)
+     * @param error エラーかどうか
+     */
+    public void record(String label, long elapsedNanos, boolean error) {
+        Samples s = samples.computeIfAbsent(label, k -> new Samples());
+        s.add(elapsedNanos);
+        if (error) {
+            s.errors++;
+        }
+    }
+
+    /**
+     * 他のインスタンスの記録を追加する
+     * @param other 追加する記録
+     */
+    public void merge(LatencyRecorder other) {
+        for (Map.Entry<String, Samples> e : other.samples.entrySet()) {
+            Samples s = samples.computeIfAbsent(e.getKey(), k -> new Samples());
+            for (int i = 0; i < e.getValue().count; i++) {
+                s.add(e.getValue().nanos[i]);
+            }
+            s.errors += e.getValue().errors;
+        }
+    }
+
+    /**
+     * action/commandごとの件数・エラー件数・スループット・応答時間のパーセンタイルを出力する
+     * @param out 出力先
+     * @param durationSeconds 計測時間(秒)
+     */
+    public void print(PrintStream out, double durationSeconds) {
+        String format = "%-24s %8s %7s %9s %9s %9s %9s %9s%n";
+        out.printf(format, "action/command", "count", "errors", "req/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)");
+
+        int totalCount = 0;
+        int totalErrors = 0;
+        for (Map.Entry<String, Samples> e : samples.entrySet()) {
+            Samples s = e.getValue();
+            long[] sorted = Arrays.copyOf(s.nanos, s.count);
+            Arrays.sort(sorted);
+
+            out.printf(format, e.getKey(), s.count, s.errors,
+                    String.format("%.1f", s.count / durationSeconds),
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+
+            totalCount += s.count;
+            totalErrors += s.errors;
+        }
+
+        out.printf(format, "total", totalCount, totalErrors, String.format("%.1f", totalCount / durationSeconds),
+                "", "", "", "");
+    }
+
+    /**
+     * ソート済みの値から指定したパーセンタイルの値を返却する(nearest-rank法)
+     */
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+}
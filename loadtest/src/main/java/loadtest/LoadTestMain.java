@@ -0,0 +1,70 @@
+package loadtest;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 負荷試験の起動クラス
+ * 組み込みTomcatでWebアプリを起動し、データを投入した後、指定した人数の利用者で操作を繰り返して
+ * action/commandごとの応答時間(p50/p95/p99)とスループットを出力する
+ *
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "--help".equals(args[0])) {
+            System.out.print(LoadTestOptions.usage());
+            return;
+        }
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        System.out.println("options: " + options);
+
+        int employees = options.getInt("employees");
+        int reports = options.getInt("reports");
+        int users = options.getInt("users");
+        long seed = options.getLong("seed");
+
+        try (EmbeddedServer server = new EmbeddedServer(new File(options.getString("webapp")))) {
+            server.start();
+            System.out.println("started: " + server.getBaseUrl());
+
+            //データ投入
+            long seedStart = System.nanoTime();
+            try (Connection con = DriverManager.getConnection(
+                    EmbeddedServer.JDBC_URL, EmbeddedServer.JDBC_USER, EmbeddedServer.JDBC_PASSWORD)) {
+                new Seeder(con, seed).seed(employees, reports,
+                        options.getInt("follows"), options.getInt("likes"), EmbeddedServer.PEPPER);
+            }
+            System.out.printf("seeded in %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            //ウォームアップ後から計測終了までの応答時間を記録する
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.getLong("warmup"));
+            long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(options.getLong("duration"));
+
+            List<VirtualUser> virtualUsers = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                VirtualUser vu = new VirtualUser(server.getBaseUrl(), 1 + i % employees, reports,
+                        measureFrom, measureUntil, seed + i);
+                Thread t = new Thread(vu, "virtual-user-" + i);
+                virtualUsers.add(vu);
+                threads.add(t);
+                t.start();
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+
+            LatencyRecorder total = new LatencyRecorder();
+            for (VirtualUser vu : virtualUsers) {
+                total.merge(vu.getRecorder());
+            }
+            total.print(System.out, options.getLong("duration"));
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 負荷試験のオプション(コマンドライン引数 --名前 値 で指定する)
+ *
+ */
+public class LoadTestOptions {
+
+    /**
+     * オプション名とデフォルト値
+     */
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    static {
+        DEFAULTS.put("webapp", "target/daily_report_system"); //展開済みのWebアプリのディレクトリ(またはwarファイル)
+        DEFAULTS.put("employees", "200"); //登録する従業員の件数
+        DEFAULTS.put("reports", "5000"); //登録する日報の件数
+        DEFAULTS.put("likes", "20000"); //登録するいいねの件数
+        DEFAULTS.put("follows", "2000"); //登録するフォローの件数
+        DEFAULTS.put("users", "20"); //同時に操作する利用者の数
+        DEFAULTS.put("warmup", "10"); //計測前のウォームアップ時間(秒)
+        DEFAULTS.put("duration", "60"); //計測時間(秒)
+        DEFAULTS.put("seed", "1"); //乱数のシード(同じ値なら同じデータ・同じ操作順になる)
+    }
+
+    private final Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+
+    /**
+     * コマンドライン引数からオプションを作成する
+     * @param args コマンドライン引数
+     * @return オプション
+     * @throws IllegalArgumentException 不明なオプション、または値のないオプションがある場合
+     */
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i].startsWith("--") ? args[i].substring(2) : args[i];
+            if (!DEFAULTS.containsKey(name) || i + 1 >= args.length) {
+                throw new IllegalArgumentException("unknown option or missing value: " + args[i]);
+            }
+            options.values.put(name, args[++i]);
+        }
+
+        return options;
+    }
+
+    /**
+     * オプションの一覧とデフォルト値を返却する
+     * @return 使い方の説明
+     */
+    public static String usage() {
+        StringBuilder sb = new StringBuilder("usage: java -jar loadtest.jar [options]\n");
+        for (Map.Entry<String, String> e : DEFAULTS.entrySet()) {
+            sb.append(String.format("  --%-10s (default: %s)%n", e.getKey(), e.getValue()));
+        }
+        return sb.toString();
+    }
+
+    public String getString(String name) {
+        return values.get(name);
+    }
+
+    public int getInt(String name) {
+        return Integer.parseInt(values.get(name));
+    }
+
+    public long getLong(String name) {
+        return Long.parseLong(values.get(name));
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+
+}
@@ -0,0 +1,215 @@
+package loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import constants.JpaConst;
+
+/**
+ * 負荷試験用のデータをJDBCのバッチ登録で投入するクラス
+ * 従業員の社員番号は e1, e2, ... 、パスワードは全員 PASSWORD とする
+ *
+ */
+public class Seeder {
+
+    /**
+     * 全ての従業員のパスワード
+     */
+    public static final String PASSWORD = "password";
+
+    /**
+     * 1回のバッチで登録する件数
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    private final Connection con;
+
+    private final Random random;
+
+    /**
+     * コンストラクタ
+     * @param con 投入先のDB接続
+     * @param seed 乱数のシード
+     */
+    public Seeder(Connection con, long seed) {
+        this.con = con;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 社員番号を返却する
+     * @param employeeId 従業員のid
+     * @return 社員番号
+     */
+    public static String code(int employeeId) {
+        return "e" + employeeId;
+    }
+
+    /**
+     * 従業員・日報・フォロー・いいねを登録し、いいね数とタイムラインを投入したデータに合わせる
+     * idは1から連番で採番される前提(空のテーブルに投入すること)
+     * @param employees 従業員の件数
+     * @param reports 日報の件数
+     * @param follows フォローの件数(従業員の組み合わせの数を上限とする)
+     * @param likes いいねの件数(日報と従業員の組み合わせの数を上限とする)
+     * @param pepper パスワードのハッシュ化に使用するpepper文字列
+     * @throws SQLException 登録に失敗した場合
+     */
+    public void seed(int employees, int reports, int follows, int likes, String pepper) throws SQLException {
+        con.setAutoCommit(false);
+
+        insertEmployees(employees, hash(PASSWORD + pepper));
+        insertReports(reports, employees);
+        insertFollows((int) Math.min(follows, (long) employees * (employees - 1)), employees);
+        insertLikes((int) Math.min(likes, (long) reports * employees), reports, employees);
+
+        try (Statement st = con.createStatement()) {
+            //日報ごとのいいね数
+            st.executeUpdate("UPDATE " + JpaConst.TABLE_REP + " SET " + JpaConst.REP_COL_LIKE_COUNT
+                    + " = (SELECT COUNT(*) FROM " + JpaConst.TABLE_LIKE + " l WHERE l." + JpaConst.LIKE_COL_REP
+                    + " = " + JpaConst.TABLE_REP + "." + JpaConst.REP_COL_ID + ")");
+
+            //フォローしている従業員の日報をタイムラインに追加する
+            st.executeUpdate("INSERT INTO " + JpaConst.TABLE_FEED
+                    + " (" + JpaConst.FEED_COL_EMP + ", " + JpaConst.FEED_COL_REP + ")"
+                    + " SELECT f." + JpaConst.FOLLOW_COL_FOLLOWING_EMP + ", r." + JpaConst.REP_COL_ID
+                    + " FROM " + JpaConst.TABLE_FOLLOW + " f JOIN " + JpaConst.TABLE_REP + " r"
+                    + " ON r." + JpaConst.REP_COL_EMP + " = f." + JpaConst.FOLLOW_COL_FOLLOWED_EMP);
+        }
+
+        con.commit();
+    }
+
+    private void insertEmployees(int count, String password) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "INSERT INTO " + JpaConst.TABLE_EMP + " (" + JpaConst.EMP_COL_CODE + ", " + JpaConst.EMP_COL_NAME
+                + ", " + JpaConst.EMP_COL_PASS + ", " + JpaConst.EMP_COL_ADMIN_FLAG + ", " + JpaConst.EMP_COL_CREATED_AT
+                + ", " + JpaConst.EMP_COL_UPDATED_AT + ", " + JpaConst.EMP_COL_DELETE_FLAG + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                ps.setString(1, code(i));
+                ps.setString(2, "employee" + i);
+                ps.setString(3, password);
+                ps.setInt(4, i == 1 ? JpaConst.ROLE_ADMIN : JpaConst.ROLE_GENERAL);
+                ps.setTimestamp(5, now);
+                ps.setTimestamp(6, now);
+                ps.setInt(7, JpaConst.EMP_DEL_FALSE);
+                addBatch(ps, i);
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void insertReports(int count, int employees) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        String sql = "INSERT INTO " + JpaConst.TABLE_REP + " (" + JpaConst.REP_COL_EMP + ", " + JpaConst.REP_COL_REP_DATE
+                + ", " + JpaConst.REP_COL_TITLE + ", " + JpaConst.REP_COL_CONTENT + ", " + JpaConst.REP_COL_CREATED_AT
+                + ", " + JpaConst.REP_COL_UPDATED_AT + ", " + JpaConst.REP_COL_LIKE_COUNT + ") VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                //古い日報から順に登録する
+                Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(count - i));
+                ps.setInt(1, 1 + random.nextInt(employees));
+                ps.setDate(2, Date.valueOf(LocalDate.now().minusDays((count - i) / 100)));
+                ps.setString(3, "report" + i);
+                ps.setString(4, "content of report " + i);
+                ps.setTimestamp(5, createdAt);
+                ps.setTimestamp(6, createdAt);
+                addBatch(ps, i);
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void insertFollows(int count, int employees) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "INSERT INTO " + JpaConst.TABLE_FOLLOW + " (" + JpaConst.FOLLOW_COL_FOLLOWING_EMP
+                + ", " + JpaConst.FOLLOW_COL_FOLLOWED_EMP + ", " + JpaConst.FOLLOW_COL_CREATED_AT
+                + ", " + JpaConst.FOLLOW_COL_UPDATED_AT + ") VALUES (?, ?, ?, ?)";
+
+        Set<Long> pairs = new HashSet<>();
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            while (pairs.size() < count) {
+                int following = 1 + random.nextInt(employees);
+                int followed = 1 + random.nextInt(employees);
+                if (following == followed || !pairs.add(pair(following, followed))) {
+                    continue;
+                }
+                ps.setInt(1, following);
+                ps.setInt(2, followed);
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+                addBatch(ps, pairs.size());
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void insertLikes(int count, int reports, int employees) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "INSERT INTO " + JpaConst.TABLE_LIKE + " (" + JpaConst.LIKE_COL_REP + ", " + JpaConst.LIKE_COL_EMP
+                + ", " + JpaConst.LIKE_COL_CREATED_AT + ", " + JpaConst.LIKE_COL_UPDATED_AT + ") VALUES (?, ?, ?, ?)";
+
+        Set<Long> pairs = new HashSet<>();
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            while (pairs.size() < count) {
+                int report = 1 + random.nextInt(reports);
+                int employee = 1 + random.nextInt(employees);
+                if (!pairs.add(pair(report, employee))) {
+                    continue;
+                }
+                ps.setInt(1, report);
+                ps.setInt(2, employee);
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+                addBatch(ps, pairs.size());
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * バッチに追加し、一定件数ごとに実行する
+     */
+    private static void addBatch(PreparedStatement ps, int n) throws SQLException {
+        ps.addBatch();
+        if (n % BATCH_SIZE == 0) {
+            ps.executeBatch();
+        }
+    }
+
+    private static long pair(int a, int b) {
+        return ((long) a << 32) | b;
+    }
+
+    /**
+     * アプリケーションのパスワードのハッシュ化(SHA-256の16進数表記)と同じ値を返却する
+     */
+    private static String hash(String s) {
+        try {
+            byte[] bytes = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : bytes) {
+                sb.append(String.format("%02X", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+package loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * 1人の利用者の操作を再現するクラス
+ * ログイン後、計測終了時刻まで画面の表示・いいね・フォローを重み付きの乱数で選んで繰り返す
+ *
+ */
+public class VirtualUser implements Runnable {
+
+    /**
+     * 操作と選ばれる重み(合計100)
+     */
+    private static final String[][] STEPS = {
+            { "Top", "index", "25" },
+            { "Report", "index", "10" },
+            { "Report", "showTimeline", "20" },
+            { "Report", "show", "30" },
+            { "Report", "like", "10" },
+            { "Report", "follow", "5" },
+    };
+
+    /**
+     * 日報のidを指定する操作
+     */
+    private static final String WITH_REPORT_ID = "show like follow";
+
+    /**
+     * ブラウザと同様に送信する言語の指定(JSPの日付の変換にリクエストのロケールが必要なため)
+     */
+    private static final String ACCEPT_LANGUAGE = "ja,en;q=0.8";
+
+    /**
+     * 画面の末尾(途中までしか出力されなかった画面を検出する)
+     */
+    private static final String END_OF_PAGE = "</html>";
+
+    private final String baseUrl;
+
+    private final int employeeId;
+
+    private final int reports;
+
+    private final long measureFrom;
+
+    private final long measureUntil;
+
+    private final Random random;
+
+    private final HttpClient client;
+
+    private final CookieManager cookies = new CookieManager();
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    /**
+     * コンストラクタ
+     * @param baseUrl WebアプリのURL
+     * @param employeeId ログインする従業員のid
+     * @param reports 日報の件数(操作対象の日報のidの上限)
+     * @param measureFrom 計測を開始する時刻(System.nanoTime)
+     * @param measureUntil 計測を終了する時刻(System.nanoTime)
+     * @param seed 乱数のシード
+     */
+    public VirtualUser(String baseUrl, int employeeId, int reports, long measureFrom, long measureUntil, long seed) {
+        this.baseUrl = baseUrl;
+        this.employeeId = employeeId;
+        this.reports = reports;
+        this.measureFrom = measureFrom;
+        this.measureUntil = measureUntil;
+        this.random = new Random(seed);
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NEVER) //リダイレクト先は別の操作として扱う
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (!login()) {
+                System.err.println("login failed: " + Seeder.code(employeeId));
+                return;
+            }
+
+            while (System.nanoTime() < measureUntil) {
+                String[] step = nextStep();
+                String query = "?action=" + step[0] + "&command=" + step[1];
+                if (WITH_REPORT_ID.contains(step[1])) {
+                    query += "&id=" + (1 + random.nextInt(reports));
+                }
+                send(step[0] + "/" + step[1], HttpRequest.newBuilder(URI.create(baseUrl + query)).GET());
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * ログイン画面を表示してセッションを開始し、ログインする(CSRF対策用トークンはセッションID)
+     * @return ログインに成功した場合true
+     */
+    private boolean login() throws InterruptedException {
+        send("Auth/showLogin", HttpRequest.newBuilder(URI.create(baseUrl + "?action=Auth&command=showLogin")).GET());
+
+        String token = null;
+        for (HttpCookie cookie : cookies.getCookieStore().getCookies()) {
+            if ("JSESSIONID".equals(cookie.getName())) {
+                token = cookie.getValue();
+            }
+        }
+
+        String form = "code=" + encode(Seeder.code(employeeId))
+                + "&password=" + encode(Seeder.PASSWORD)
+                + "&_token=" + encode(token);
+        HttpResponse<String> res = send("Auth/login",
+                HttpRequest.newBuilder(URI.create(baseUrl + "?action=Auth&command=login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form)));
+
+        //ログインに成功した場合はトップページへリダイレクトされる
+        return res != null && res.statusCode() == 302;
+    }
+
+    /**
+     * リクエストを送信し、計測時間内であれば応答時間を記録する
+     * エラーのステータス、途中までしか出力されなかった画面、タイムアウト等の通信エラーはエラーとして記録する
+     * @param label action/command
+     * @param builder リクエスト
+     * @return レスポンス 通信エラーの場合null
+     */
+    private HttpResponse<String> send(String label, HttpRequest.Builder builder) throws InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> res = null;
+        try {
+            res = client.send(
+                    builder.header("Accept-Language", ACCEPT_LANGUAGE).timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            System.err.println(label + ": " + e);
+        }
+        long end = System.nanoTime();
+
+        if (start >= measureFrom && end <= measureUntil) {
+            recorder.record(label, end - start, isError(res));
+        }
+
+        return res;
+    }
+
+    /**
+     * レスポンスがエラーかどうかを判定する
+     * @param res レスポンス(通信エラーの場合null)
+     * @return エラーの場合true
+     */
+    private static boolean isError(HttpResponse<String> res) {
+        if (res == null || res.statusCode() >= 400) {
+            return true;
+        }
+        //画面を表示する場合は、末尾まで出力されていること
+        return res.statusCode() == 200 && !res.body().contains(END_OF_PAGE);
+    }
+
+    private String[] nextStep() {
+        int r = random.nextInt(100);
+        for (String[] step : STEPS) {
+            r -= Integer.parseInt(step[2]);
+            if (r < 0) {
+                return step;
+            }
+        }
+        return STEPS[0];
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s == null ? "" : s, StandardCharsets.UTF_8);
+    }
+
+}
@@ -1,19 +1,25 @@
 package actions;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import actions.views.ReportSummaryView;
 import constants.AttributeConst;
 import constants.ForwardConst;
+import constants.JpaConst;
 import constants.PropertyConst;
+import utils.DBUtil;
 
 /**
  * 各Actionクラスの親クラス。共通処理を行う。
@@ -24,20 +30,38 @@ public abstract class ActionBase {
     protected HttpServletRequest request;
     protected HttpServletResponse response;
 
+    /**
+     * 1リクエスト内の全てのServiceで共有するEntityManager(初回使用時に生成する)
+     */
+    private EntityManager em;
+
+    /**
+     * リクエスト内で実行するクエリのタイムアウト(ミリ秒) 0以下の場合は指定しない
+     */
+    private int queryTimeout;
+
+    /**
+     * commandの値と、該当するメソッドの対応表(起動時にフロントコントローラで作成したもの)
+     */
+    private Map<String, MethodHandle> commands;
+
     /**
      * 初期化処理
-     * サーブレットコンテキスト、リクエスト、レスポンスをクラスフィールドに設定
+     * サーブレットコンテキスト、リクエスト、レスポンス、commandの対応表をクラスフィールドに設定
      * @param servletContext
      * @param servletRequest
      * @param servletResponse
+     * @param commands commandの値と、該当するメソッド (ActionBase)void の対応表
      */
     public void init(
             ServletContext servletContext,
             HttpServletRequest servletRequest,
-            HttpServletResponse servletResponse) {
+            HttpServletResponse servletResponse,
+            Map<String, MethodHandle> commands) {
         this.context = servletContext;
         this.request = servletRequest;
         this.response = servletResponse;
+        this.commands = commands;
     }
 
     /**
@@ -47,6 +71,53 @@ public abstract class ActionBase {
      */
     public abstract void process() throws ServletException, IOException;
 
+    /**
+     * リクエスト内で実行するクエリのタイムアウトを設定する(非同期処理の残り時間を超えて検索を続けないようにする)
+     * @param millis タイムアウト(ミリ秒)
+     */
+    public void setQueryTimeout(int millis) {
+        this.queryTimeout = millis;
+        if (em != null) {
+            em.setProperty(JpaConst.QUERY_TIMEOUT_HINT, millis);
+        }
+    }
+
+    /**
+     * リクエスト内で共有するEntityManagerを取得する(未生成の場合は生成する)
+     * @return EntityManagerインスタンス
+     */
+    protected EntityManager getEntityManager() {
+        if (em == null) {
+            em = DBUtil.createEntityManager();
+            if (queryTimeout > 0) {
+                em.setProperty(JpaConst.QUERY_TIMEOUT_HINT, queryTimeout);
+            }
+        }
+        return em;
+    }
+
+    /**
+     * リクエスト内で共有したEntityManagerをクローズする
+     * 未完了のトランザクションが残っている場合はロールバックする
+     */
+    public void closeEntityManager() {
+        if (em == null) {
+            return;
+        }
+
+        try {
+            EntityTransaction tx = em.getTransaction();
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+        } finally {
+            if (em.isOpen()) {
+                em.close();
+            }
+            em = null;
+        }
+    }
+
     /**
      * パラメータのcommandの値に該当するメソッドを実行する
      * @throws ServletException
@@ -55,23 +126,30 @@ public abstract class ActionBase {
     protected void invoke()
             throws ServletException, IOException {
 
-        Method commandMethod;
-        try {
+        //パラメータからcommandを取得
+        String command = request.getParameter(ForwardConst.CMD.getValue());
 
-            //パラメータからcommandを取得
-            String command = request.getParameter(ForwardConst.CMD.getValue());
+        //commandに該当するメソッドを対応表から取得する
+        MethodHandle commandMethod = command == null ? null : commands.get(command);
+        if (commandMethod == null) {
+            //commandの値が不正で実行できない場合エラー画面を呼び出し
+            forward(ForwardConst.FW_ERR_UNKNOWN);
+            return;
+        }
+
+        try {
 
             //commandに該当するメソッドを実行する
             //(例: action=Employee command=show の場合 EmployeeActionクラスのshow()メソッドを実行する)
-            commandMethod = this.getClass().getDeclaredMethod(command, new Class[0]);
-            commandMethod.invoke(this, new Object[0]); //メソッドに渡す引数はなし
+            commandMethod.invokeExact(this);
 
-        } catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException | NullPointerException e) {
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
 
             //発生した例外をコンソールに表示
             e.printStackTrace();
-            //commandの値が不正で実行できない場合エラー画面を呼び出し
+            //メソッドの実行中に例外が発生した場合エラー画面を呼び出し
             forward(ForwardConst.FW_ERR_UNKNOWN);
         }
 
@@ -94,6 +172,43 @@ public abstract class ActionBase {
 
     }
 
+    /**
+     * 画面の検証子(ETag)をレスポンスヘッダに設定し、
+     * リクエストの条件(If-None-Match)からブラウザの保持している画面が最新の場合は304を返す
+     * (いいね・フォローの状態など更新日時を持たない内容も表示するため、最終更新日時(Last-Modified)は使用しない)
+     * @param etag 画面に表示する内容から作成した検証子(弱いETag、引用符を含まない値)
+     * @return true: 304を返した(画面を表示しない) false: 画面を表示する
+     */
+    protected boolean checkNotModified(String etag) {
+
+        String weakEtag = "W/\"" + etag + "\"";
+
+        //ログイン中の従業員ごとに内容が異なるため共有キャッシュには保持させず、表示のたびに検証させる
+        response.setHeader("Cache-Control", "private, no-cache");
+        response.setHeader("ETag", weakEtag);
+
+        boolean notModified = false;
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                //弱い比較(W/の有無を区別しない)
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(weakEtag.substring(2))) {
+                    notModified = true;
+                    break;
+                }
+            }
+        }
+
+        if (notModified) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+        return notModified;
+    }
+
     /**
      * URLを構築しリダイレクトを行う
      * @param action パラメータに設定する値
@@ -159,6 +274,32 @@ public abstract class ActionBase {
         return page;
     }
 
+    /**
+     * リクエストからカーソル(前ページ最後のデータのid)を取得し、返却する
+     * @return カーソル(指定がない場合はnull。ページ番号によるページングを行う)
+     */
+    protected Integer getCursor() {
+        int cursor = toNumber(request.getParameter(AttributeConst.CURSOR.getValue()));
+        if (cursor == Integer.MIN_VALUE) {
+            return null;
+        }
+        return cursor;
+    }
+
+    /**
+     * 1ページに表示する件数より1件多く取得した日報データのリストから、次ページを取得するためのカーソルを返却する
+     * 余分に取得した1件がある場合は次ページがあるとみなし、表示しないようリストから取り除く
+     * @param reports 一覧画面に表示する日報データのリスト
+     * @return 次ページのカーソル(次ページがない場合はnull)
+     */
+    protected Integer getNextCursor(List<ReportSummaryView> reports) {
+        if (reports.size() <= JpaConst.ROW_PER_PAGE) {
+            return null;
+        }
+        reports.subList(JpaConst.ROW_PER_PAGE, reports.size()).clear();
+        return reports.get(JpaConst.ROW_PER_PAGE - 1).getId();
+    }
+
     /**
      * 文字列を数値に変換する
      * @param strNumber 変換前文字列
@@ -204,6 +345,16 @@ public abstract class ActionBase {
         request.setAttribute(key.getValue(), value);
     }
 
+    /**
+     * リクエストスコープから指定された名前の値を取得し、返却する
+     * @param key 値の名前
+     * @return 値
+     */
+    @SuppressWarnings("unchecked")
+    protected <R> R getRequestScope(AttributeConst key) {
+        return (R) request.getAttribute(key.getValue());
+    }
+
     /**
      * セッションスコープから指定されたパラメータの値を取得し、返却する
      * @param key パラメータ名
@@ -1,8 +1,10 @@
 package actions;
 
 import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
 
 import actions.views.EmployeeView;
 import constants.AttributeConst;
@@ -17,6 +19,11 @@ import services.EmployeeService;
  */
 public class AuthAction extends ActionBase {
 
+    /**
+     * ログインが混み合っている場合に、再度ログインするまで待つよう応答する秒数
+     */
+    private static final String RETRY_AFTER_SECONDS = "5";
+
     private EmployeeService service;
 
     /**
@@ -25,12 +32,10 @@ public class AuthAction extends ActionBase {
     @Override
     public void process() throws ServletException, IOException {
 
-        service = new EmployeeService();
+        service = new EmployeeService(getEntityManager());
 
         //メソッドを実行
         invoke();
-
-        service.close();
     }
 
     /**
@@ -67,17 +72,26 @@ public class AuthAction extends ActionBase {
         String plainPass = getRequestParam(AttributeConst.EMP_PASS);
         String pepper = getContextScope(PropertyConst.PEPPER);
 
-        //有効な従業員か認証する
-        Boolean isValidEmployee = service.validateLogin(code, plainPass, pepper);
+        //有効な従業員か認証し、認証できた従業員のデータを取得する
+        EmployeeView ev;
+        try {
+            ev = service.authenticate(code, plainPass, pepper);
+        } catch (RejectedExecutionException e) {
+            //パスワードのハッシュ化が混み合っている場合は、時間をおいて再度ログインしてもらう
+            response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
 
-        if (isValidEmployee) {
+        if (ev != null) {
             //認証成功の場合
 
             //CSRF対策 tokenのチェック
             if (checkToken()) {
 
-                //ログインした従業員のDBデータを取得
-                EmployeeView ev = service.findOne(code, plainPass, pepper);
+                //以前の方式でハッシュ化したパスワードは、現在の方式でハッシュ化し直す
+                service.upgradePassword(ev, plainPass, pepper);
+
                 //セッションにログインした従業員を設定
                 putSessionScope(AttributeConst.LOGIN_EMP, ev);
                 //セッションにログイン完了のフラッシュメッセージを設定
@@ -27,12 +27,10 @@ public class EmployeeAction extends ActionBase {
     @Override
     public void process() throws ServletException, IOException {
 
-        service = new EmployeeService();
+        service = new EmployeeService(getEntityManager());
 
         //メソッドを実行
         invoke();
-
-        service.close();
     }
 
     /**
@@ -0,0 +1,258 @@
+package actions;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collection;
+
+import javax.servlet.ServletException;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import actions.views.EmployeeView;
+import constants.AttributeConst;
+import constants.ForwardConst;
+import utils.DBUtil;
+import utils.FragmentCache;
+import utils.LatencyHistogram;
+import utils.MetricsUtil;
+import utils.MetricsUtil.RouteMetrics;
+import utils.PasswordUtil;
+import utils.SlowQueryLog;
+
+/**
+ * 稼働状況の計測値を出力するActionクラス
+ * 監視ツールから収集できるよう、Prometheusのテキスト形式で出力する(管理者のみ)
+ *
+ */
+public class MetricsAction extends ActionBase {
+
+    /**
+     * Prometheusのテキスト形式のContent-Type
+     */
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=UTF-8";
+
+    /**
+     * メソッドを実行する
+     */
+    @Override
+    public void process() throws ServletException, IOException {
+
+        //メソッドを実行
+        invoke();
+
+    }
+
+    /**
+     * 計測値を出力する
+     * @throws ServletException
+     * @throws IOException
+     */
+    public void index() throws ServletException, IOException {
+
+        //管理者かどうかのチェック
+        if (checkAdmin()) {
+
+            response.setContentType(CONTENT_TYPE);
+            PrintWriter out = response.getWriter();
+
+            Statistics stats = DBUtil.getStatistics();
+            writeRequestMetrics(out, MetricsUtil.getRouteMetrics().values());
+            writeSessionMetrics(out, stats);
+            writeSlowQueryMetrics(out);
+            writePasswordHashMetrics(out);
+            writeFragmentCacheMetrics(out);
+            writeCacheMetrics(out, stats);
+
+            out.flush();
+        }
+    }
+
+    /**
+     * リクエストの処理時間の分布と、リクエスト内で実行したSQLの回数・時間をactionとcommandごとに出力する
+     * @param out 出力先
+     * @param routes actionとcommandの組み合わせごとの集計値
+     */
+    private void writeRequestMetrics(PrintWriter out, Collection<RouteMetrics> routes) {
+
+        writeHeader(out, "app_request_duration_seconds", "histogram", "リクエストの処理時間");
+        for (RouteMetrics route : routes) {
+            LatencyHistogram latency = route.getLatency();
+            long[] counts = latency.getCumulativeCounts();
+            for (int i = 0; i < LatencyHistogram.BUCKETS.length; i++) {
+                writeRouteValue(out, "app_request_duration_seconds_bucket", route,
+                        ",le=\"" + LatencyHistogram.BUCKETS[i] + "\"", counts[i]);
+            }
+            writeRouteValue(out, "app_request_duration_seconds_bucket", route, ",le=\"+Inf\"", counts[counts.length - 1]);
+            writeRouteValue(out, "app_request_duration_seconds_sum", route, "", latency.getSumSeconds());
+            writeRouteValue(out, "app_request_duration_seconds_count", route, "", counts[counts.length - 1]);
+        }
+
+        writeHeader(out, "app_request_jdbc_statements_total", "counter", "リクエスト内で実行したSQLの回数");
+        for (RouteMetrics route : routes) {
+            writeRouteValue(out, "app_request_jdbc_statements_total", route, "", route.getStatementCount());
+        }
+
+        writeHeader(out, "app_request_jdbc_seconds_total", "counter", "リクエスト内で実行したSQLの実行時間の合計");
+        for (RouteMetrics route : routes) {
+            writeRouteValue(out, "app_request_jdbc_seconds_total", route, "", route.getStatementSeconds());
+        }
+    }
+
+    /**
+     * EntityManager(Hibernateのセッション)の生成・クローズ件数と、SQLの実行回数を出力する
+     * @param out 出力先
+     * @param stats Hibernateの統計情報
+     */
+    private void writeSessionMetrics(PrintWriter out, Statistics stats) {
+
+        writeHeader(out, "hibernate_sessions_opened_total", "counter", "生成したEntityManagerの件数");
+        out.println("hibernate_sessions_opened_total " + stats.getSessionOpenCount());
+
+        writeHeader(out, "hibernate_sessions_closed_total", "counter", "クローズしたEntityManagerの件数");
+        out.println("hibernate_sessions_closed_total " + stats.getSessionCloseCount());
+
+        writeHeader(out, "hibernate_jdbc_statements_prepared_total", "counter", "準備したSQLの件数(リクエスト外の処理を含む)");
+        out.println("hibernate_jdbc_statements_prepared_total " + stats.getPrepareStatementCount());
+    }
+
+    /**
+     * 実行時間が閾値を超えた回数を名前付きクエリごとに出力する
+     * @param out 出力先
+     */
+    private void writeSlowQueryMetrics(PrintWriter out) {
+
+        writeHeader(out, "app_slow_queries_total", "counter", "実行時間が閾値を超えた名前付きクエリの件数");
+        SlowQueryLog.getCounts().forEach((name, count) -> out.println("app_slow_queries_total{query=\"" + name + "\"} " + count));
+    }
+
+    /**
+     * パスワードのハッシュ化の実行待ち件数と、混み合って実行しなかった件数を出力する
+     * @param out 出力先
+     */
+    private void writePasswordHashMetrics(PrintWriter out) {
+
+        writeHeader(out, "app_password_hash_queued", "gauge", "パスワードのハッシュ化の実行待ち件数");
+        out.println("app_password_hash_queued " + PasswordUtil.getQueuedCount());
+
+        writeHeader(out, "app_password_hash_rejected_total", "counter", "混み合っていたためパスワードのハッシュ化を実行しなかった件数");
+        out.println("app_password_hash_rejected_total " + PasswordUtil.getRejectedCount());
+    }
+
+    /**
+     * 描画済みの一覧画面のHTMLを使用できた件数・できなかった件数と保持件数を出力する
+     * @param out 出力先
+     */
+    private void writeFragmentCacheMetrics(PrintWriter out) {
+
+        writeHeader(out, "app_fragment_cache_hits_total", "counter", "描画済みの一覧画面のHTMLを使用できた件数");
+        out.println("app_fragment_cache_hits_total " + FragmentCache.getHitCount());
+
+        writeHeader(out, "app_fragment_cache_misses_total", "counter", "描画済みの一覧画面のHTMLがなくDBから取得した件数");
+        out.println("app_fragment_cache_misses_total " + FragmentCache.getMissCount());
+
+        writeHeader(out, "app_fragment_cache_evictions_total", "counter", "保持件数の上限を超えて破棄した件数");
+        out.println("app_fragment_cache_evictions_total " + FragmentCache.getEvictionCount());
+
+        writeHeader(out, "app_fragment_cache_entries", "gauge", "保持している描画済みのHTMLの件数");
+        out.println("app_fragment_cache_entries " + FragmentCache.getSize());
+    }
+
+    /**
+     * 二次キャッシュのヒット・ミス・登録件数をキャッシュ(リージョン)ごとに出力する
+     * @param out 出力先
+     * @param stats Hibernateの統計情報
+     */
+    private void writeCacheMetrics(PrintWriter out, Statistics stats) {
+
+        String[] regions = stats.getSecondLevelCacheRegionNames();
+
+        writeHeader(out, "hibernate_second_level_cache_hits_total", "counter", "二次キャッシュから取得できた件数");
+        for (String region : regions) {
+            writeRegionValue(out, "hibernate_second_level_cache_hits_total", region,
+                    stats.getDomainDataRegionStatistics(region).getHitCount());
+        }
+
+        writeHeader(out, "hibernate_second_level_cache_misses_total", "counter", "二次キャッシュになくDBから取得した件数");
+        for (String region : regions) {
+            writeRegionValue(out, "hibernate_second_level_cache_misses_total", region,
+                    stats.getDomainDataRegionStatistics(region).getMissCount());
+        }
+
+        writeHeader(out, "hibernate_second_level_cache_puts_total", "counter", "二次キャッシュに登録した件数");
+        for (String region : regions) {
+            writeRegionValue(out, "hibernate_second_level_cache_puts_total", region,
+                    stats.getDomainDataRegionStatistics(region).getPutCount());
+        }
+
+        writeHeader(out, "hibernate_second_level_cache_elements", "gauge", "二次キャッシュに保持している件数");
+        for (String region : regions) {
+            CacheRegionStatistics rs = stats.getDomainDataRegionStatistics(region);
+            //件数を取得できないキャッシュは出力しない
+            if (rs.getElementCountInMemory() != CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN) {
+                writeRegionValue(out, "hibernate_second_level_cache_elements", region, rs.getElementCountInMemory());
+            }
+        }
+    }
+
+    /**
+     * 計測値の説明と種類を出力する
+     * @param out 出力先
+     * @param name 計測値の名前
+     * @param type 計測値の種類(counter, gauge等)
+     * @param help 計測値の説明
+     */
+    private void writeHeader(PrintWriter out, String name, String type, String help) {
+        out.println("# HELP " + name + " " + help);
+        out.println("# TYPE " + name + " " + type);
+    }
+
+    /**
+     * キャッシュ(リージョン)ごとの計測値を1行出力する
+     * @param out 出力先
+     * @param name 計測値の名前
+     * @param region キャッシュ(リージョン)名
+     * @param value 計測値
+     */
+    private void writeRegionValue(PrintWriter out, String name, String region, long value) {
+        out.println(name + "{region=\"" + region + "\"} " + value);
+    }
+
+    /**
+     * actionとcommandの組み合わせごとの計測値を1行出力する
+     * @param out 出力先
+     * @param name 計測値の名前
+     * @param route actionとcommandの組み合わせごとの集計値
+     * @param labels 追加するラベル(先頭にカンマを付ける)
+     * @param value 計測値
+     */
+    private void writeRouteValue(PrintWriter out, String name, RouteMetrics route, String labels, Object value) {
+        out.println(name + "{action=\"" + route.getAction() + "\",command=\"" + route.getCommand() + "\"" + labels + "} "
+                + value);
+    }
+
+    /**
+     * ログイン中の従業員が管理者かどうかチェックし、管理者でなければエラー画面を表示
+     * true: 管理者 false: 管理者ではない
+     * @throws ServletException
+     * @throws IOException
+     */
+    private boolean checkAdmin() throws ServletException, IOException {
+
+        //セッションからログイン中の従業員情報を取得
+        EmployeeView ev = (EmployeeView) getSessionScope(AttributeConst.LOGIN_EMP);
+
+        //管理者でなければエラー画面を表示
+        if (ev.getAdminFlag() != AttributeConst.ROLE_ADMIN.getIntegerValue()) {
+
+            forward(ForwardConst.FW_ERR_UNKNOWN);
+            return false;
+
+        } else {
+
+            return true;
+        }
+
+    }
+
+}
@@ -2,6 +2,8 @@ package actions;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 import javax.servlet.ServletException;
@@ -9,6 +11,8 @@ import javax.servlet.ServletException;
 import actions.views.EmployeeView;
 import actions.views.FollowingView;
 import actions.views.LikeView;
+import actions.views.ReportSummaryView;
+import actions.views.ReportVersionView;
 import actions.views.ReportView;
 import constants.AttributeConst;
 import constants.ForwardConst;
@@ -17,6 +21,7 @@ import constants.MessageConst;
 import services.FollowingService;
 import services.LikeService;
 import services.ReportService;
+import utils.FragmentCache;
 
 /**
  * 日報に関する処理を行うActionクラス
@@ -34,13 +39,12 @@ public class ReportAction extends ActionBase {
     @Override
     public void process() throws ServletException, IOException {
 
-        service = new ReportService();
-        likeService = new LikeService();
-        followingService = new FollowingService();
+        service = new ReportService(getEntityManager());
+        likeService = new LikeService(getEntityManager());
+        followingService = new FollowingService(getEntityManager());
 
         //メソッドを実行
         invoke();
-        service.close();
     }
 
     /**
@@ -50,17 +54,35 @@ public class ReportAction extends ActionBase {
      */
     public void index() throws ServletException, IOException {
 
-        //指定されたページ数の一覧画面に表示する日報データを取得
+        Integer cursor = getCursor();
         int page = getPage();
-        List<ReportView> reports = service.getAllPerPage(page);
 
-        //全日報データの件数を取得
-        long reportsCount = service.countAll();
+        //同じページ・同じバージョンのデータで描画済みの一覧がある場合は、DBから取得せずにそのまま表示する
+        String view = ForwardConst.FW_REP_INDEX.getValue();
+        String fragmentPage = cursor == null ? "page=" + page : "cursor=" + cursor;
+        long version = FragmentCache.getVersion();
+        String html = FragmentCache.get(view, fragmentPage, version);
 
-        putRequestScope(AttributeConst.REPORTS, reports); //取得した日報データ
-        putRequestScope(AttributeConst.REP_COUNT, reportsCount); //全ての日報データの件数
-        putRequestScope(AttributeConst.PAGE, page); //ページ数
-        putRequestScope(AttributeConst.MAX_ROW, JpaConst.ROW_PER_PAGE); //1ページに表示するレコードの数
+        if (html != null) {
+            putRequestScope(AttributeConst.REP_LIST_HTML, html); //描画済みの一覧
+        } else {
+            //指定されたカーソルまたはページ数の一覧画面に表示する日報データを取得
+            List<ReportSummaryView> reports = cursor == null
+                    ? service.getAllPerPage(page)
+                    : service.getAllOlderThan(cursor);
+            //次ページのカーソルを取得する(次ページの有無の判定用に1件多く取得した日報はリストから除く)
+            Integer nextCursor = getNextCursor(reports);
+
+            //全日報データの件数を取得
+            long reportsCount = service.countAll();
+
+            putRequestScope(AttributeConst.REPORTS, reports); //取得した日報データ
+            putRequestScope(AttributeConst.REP_COUNT, reportsCount); //全ての日報データの件数
+            putRequestScope(AttributeConst.PAGE, page); //ページ数
+            putRequestScope(AttributeConst.CURSOR, cursor); //カーソル
+            putRequestScope(AttributeConst.NEXT_CURSOR, nextCursor); //次ページのカーソル
+            putRequestScope(AttributeConst.MAX_ROW, JpaConst.ROW_PER_PAGE); //1ページに表示するレコードの数
+        }
 
         //セッションにフラッシュメッセージが設定されている場合はリクエストスコープに移し替え、セッションからは削除する
         String flush = getSessionScope(AttributeConst.FLUSH);
@@ -71,6 +93,12 @@ public class ReportAction extends ActionBase {
 
         //一覧画面を表示
         forward(ForwardConst.FW_REP_INDEX);
+
+        if (html == null && request.isRequestedSessionIdFromCookie()) {
+            //描画した一覧を、取得前のバージョンで保持する(取得中に更新された場合は以降参照されない)
+            //セッションIDをURLに付与して描画した場合は、他の従業員に表示しないよう保持しない
+            FragmentCache.put(view, fragmentPage, version, getRequestScope(AttributeConst.REP_LIST_HTML));
+        }
     }
 
     /**
@@ -157,39 +185,35 @@ public class ReportAction extends ActionBase {
      */
     public void show() throws ServletException, IOException {
 
-        //idを条件に日報データを取得する
-        ReportView rv = service.findOne(toNumber(getRequestParam(AttributeConst.REP_ID)));
+        //idを条件に、画面が変更されたかどうかの判定に使用する項目のみを取得する(日報の内容は読み込まない)
+        int id = toNumber(getRequestParam(AttributeConst.REP_ID));
+        ReportVersionView version = service.findVersion(id);
 
         //セッションからログイン中の従業員情報を取得
         EmployeeView ev = (EmployeeView) getSessionScope(AttributeConst.LOGIN_EMP);
 
-        //ログイン中の従業員が既にいいねをしたかどうかの変数
-        boolean alreadyLiked = false;
-
-        //ログイン中の従業員が既に日報の作成者をフォローしたかの確認
-        boolean alreadyFollowed = false;
-
-        if (rv == null) {
+        if (version == null) {
             //該当の日報データが存在しない場合はエラー画面を表示
             forward(ForwardConst.FW_ERR_UNKNOWN);
 
         } else {
             //ログイン中の従業員が既にいいねをしたかの確認
-            List<LikeView> likes = likeService.getAllMine(rv);
-            for (LikeView lv : likes) {
-                if (lv.getEmployee().getId() == ev.getId()) {
-                    alreadyLiked = true;
-                    break;
-                }
+            boolean alreadyLiked = likeService.hasLiked(version.toReportView(), ev);
+
+            //ログイン中の従業員が既に日報の作成者をフォローしたかの確認
+            boolean alreadyFollowed = followingService.isFollowing(ev, version.getEmployee());
+
+            //ブラウザの保持している画面が最新の場合は、日報の内容を取得せず304を返す
+            if (checkNotModified(getShowEtag(version, ev, alreadyLiked, alreadyFollowed))) {
+                return;
             }
 
-            //ログイン中の従業員が既にフォローしているかの確認
-            List<FollowingView> followings = followingService.getAllMine(ev);
-            for (FollowingView fv : followings) {
-                if (fv.getFollowedEmployee().getId() == rv.getEmployee().getId()) {
-                    alreadyFollowed = true;
-                    break;
-                }
+            //idを条件に日報データを取得する
+            ReportView rv = service.findOne(id);
+            if (rv == null) {
+                //判定後に削除された場合はエラー画面を表示
+                forward(ForwardConst.FW_ERR_UNKNOWN);
+                return;
             }
 
             putRequestScope(AttributeConst.REPORT, rv); //取得した日報データ
@@ -201,6 +225,34 @@ public class ReportAction extends ActionBase {
         }
     }
 
+    /**
+     * 詳細画面の検証子(ETag)を作成する
+     * 日報・作成者の更新日時といいね数、ログイン中の従業員といいね・フォローの状態のいずれかが変わると値が変わる
+     * @param version 日報の更新日時・いいね数
+     * @param ev ログイン中の従業員
+     * @param alreadyLiked 既にいいねをしたかどうか
+     * @param alreadyFollowed 既にフォローをしたかどうか
+     * @return 検証子
+     */
+    private String getShowEtag(ReportVersionView version, EmployeeView ev, boolean alreadyLiked, boolean alreadyFollowed) {
+        return toEtagPart(version.getUpdatedAt())
+                + "-" + Integer.toString(version.getLikeCount(), 36)
+                + "-" + toEtagPart(version.getEmployee().getUpdatedAt())
+                + "-" + Integer.toString(ev.getId(), 36)
+                + "-" + toEtagPart(ev.getUpdatedAt())
+                + "-" + (alreadyLiked ? "1" : "0") + (alreadyFollowed ? "1" : "0");
+    }
+
+    /**
+     * 更新日時を検証子に含める文字列に変換する(ナノ秒まで区別する)
+     */
+    private static String toEtagPart(LocalDateTime ldt) {
+        if (ldt == null) {
+            return "0";
+        }
+        return Long.toString(ldt.toEpochSecond(ZoneOffset.UTC), 36) + "." + Integer.toString(ldt.getNano(), 36);
+    }
+
     /**
      * 編集画面を表示する
      * @throws ServletException
@@ -283,11 +335,11 @@ public class ReportAction extends ActionBase {
         //idを条件に日報データを取得する
         ReportView rv = service.findOne(toNumber(getRequestParam(AttributeConst.REP_ID)));
 
-        //いいね数を１加算し、設定する
-        rv.setLikeCount(rv.getLikeCount() + 1);
-
-        //日報データを更新する
-        service.update(rv);
+        if (rv == null) {
+            //該当の日報データが存在しない場合はエラー画面を表示
+            forward(ForwardConst.FW_ERR_UNKNOWN);
+            return;
+        }
 
         //セッションからログイン中の従業員情報を取得
         EmployeeView ev = (EmployeeView) getSessionScope(AttributeConst.LOGIN_EMP);
@@ -300,11 +352,49 @@ public class ReportAction extends ActionBase {
                 null,
                 null);
 
-        //いいね情報をテーブルに登録する
-        likeService.create(lv);
+        //いいね情報をテーブルに登録する(日報のいいね数も同じトランザクションで加算する)
+        boolean liked = likeService.create(lv);
 
-        //セッションに更新完了のフラッシュメッセージを設定
-        putSessionScope(AttributeConst.FLUSH, MessageConst.I_LIKED.getMessage());
+        //セッションにフラッシュメッセージを設定
+        if (liked) {
+            putSessionScope(AttributeConst.FLUSH, MessageConst.I_LIKED.getMessage());
+        } else {
+            putSessionScope(AttributeConst.FLUSH, MessageConst.E_ALREADY_LIKED.getMessage());
+        }
+
+        //一覧画面にリダイレクト
+        redirect(ForwardConst.ACT_REP, ForwardConst.CMD_INDEX);
+
+    }
+
+    /**
+     * いいねを取り消す
+     * @throws ServletException
+     * @throws IOException
+     */
+    public void unlike() throws ServletException, IOException {
+
+        //idを条件に日報データを取得する
+        ReportView rv = service.findOne(toNumber(getRequestParam(AttributeConst.REP_ID)));
+
+        if (rv == null) {
+            //該当の日報データが存在しない場合はエラー画面を表示
+            forward(ForwardConst.FW_ERR_UNKNOWN);
+            return;
+        }
+
+        //セッションからログイン中の従業員情報を取得
+        EmployeeView ev = (EmployeeView) getSessionScope(AttributeConst.LOGIN_EMP);
+
+        //いいね情報を削除する(日報のいいね数も同じトランザクションで減算する)
+        boolean unliked = likeService.destroy(new LikeView(null, rv, ev, null, null));
+
+        //セッションにフラッシュメッセージを設定
+        if (unliked) {
+            putSessionScope(AttributeConst.FLUSH, MessageConst.I_UNLIKED.getMessage());
+        } else {
+            putSessionScope(AttributeConst.FLUSH, MessageConst.E_NOT_LIKED.getMessage());
+        }
 
         //一覧画面にリダイレクト
         redirect(ForwardConst.ACT_REP, ForwardConst.CMD_INDEX);
@@ -360,8 +450,10 @@ public class ReportAction extends ActionBase {
                 null,
                 null);
 
-        //フォロー情報をテーブルに登録する
-        followingService.create(fv);
+        //フォロー情報をテーブルに登録する(既にフォローしている場合は登録しない)
+        if (!followingService.isFollowing(ev, rv.getEmployee())) {
+            followingService.create(fv);
+        }
 
         //セッションに更新完了のフラッシュメッセージを設定
         putSessionScope(AttributeConst.FLUSH, MessageConst.I_FOLLOWED.getMessage());
@@ -383,13 +475,8 @@ public class ReportAction extends ActionBase {
         //セッションからログイン中の従業員情報を取得
         EmployeeView ev = (EmployeeView) getSessionScope(AttributeConst.LOGIN_EMP);
 
-        //ログイン中の従業員のフォローデータを削除
-        List<FollowingView> followings = followingService.getAllMine(ev);
-        for (FollowingView following : followings) {
-            if (following.getFollowedEmployee().getId() == rv.getEmployee().getId()) {
-                followingService.destroy(following);
-            }
-        }
+        //ログイン中の従業員から日報の作成者へのフォローデータを削除
+        followingService.destroy(ev, rv.getEmployee());
 
         //セッションに更新完了のフラッシュメッセージを設定
         putSessionScope(AttributeConst.FLUSH, MessageConst.I_UNFOLLOWED.getMessage());
@@ -410,9 +497,14 @@ public class ReportAction extends ActionBase {
         //セッションからログイン中の従業員情報を取得
         EmployeeView loginEmployee = (EmployeeView) getSessionScope(AttributeConst.LOGIN_EMP);
 
-        //フォローしている従業員が作成した日報データを、指定されたページ数の一覧画面に表示する分取得する
+        //フォローしている従業員が作成した日報データを、指定されたカーソルまたはページ数の一覧画面に表示する分取得する
+        Integer cursor = getCursor();
         int page = getPage();
-        List<ReportView> reports = service.getReportForTimelinePerPage(loginEmployee, page);
+        List<ReportSummaryView> reports = cursor == null
+                ? service.getReportForTimelinePerPage(loginEmployee, page)
+                : service.getReportForTimelineOlderThan(loginEmployee, cursor);
+        //次ページのカーソルを取得する(次ページの有無の判定用に1件多く取得した日報はリストから除く)
+        Integer nextCursor = getNextCursor(reports);
 
         //フォローしている従業員が作成した日報データの件数を取得
         long myReportsCount = service.countAllForTimeline(loginEmployee);
@@ -420,6 +512,8 @@ public class ReportAction extends ActionBase {
         putRequestScope(AttributeConst.REPORTS, reports); //取得した日報データ
         putRequestScope(AttributeConst.REP_COUNT, myReportsCount); //フォローしている従業員が作成した日報の数
         putRequestScope(AttributeConst.PAGE, page); //ページ数
+        putRequestScope(AttributeConst.CURSOR, cursor); //カーソル
+        putRequestScope(AttributeConst.NEXT_CURSOR, nextCursor); //次ページのカーソル
         putRequestScope(AttributeConst.MAX_ROW, JpaConst.ROW_PER_PAGE); //1ページに表示するレコードの数
 
         //セッションにフラッシュメッセージが設定されている場合はリクエストスコープに移し替え、セッションからは削除する
@@ -6,7 +6,7 @@ import java.util.List;
 import javax.servlet.ServletException;
 
 import actions.views.EmployeeView;
-import actions.views.ReportView;
+import actions.views.ReportSummaryView;
 import constants.AttributeConst;
 import constants.ForwardConst;
 import constants.JpaConst;
@@ -26,13 +26,11 @@ public class TopAction extends ActionBase {
     @Override
     public void process() throws ServletException, IOException {
 
-        service = new ReportService();
+        service = new ReportService(getEntityManager());
 
         //メソッドを実行
         invoke();
 
-        service.close();
-
     }
 
     /**
@@ -43,9 +41,14 @@ public class TopAction extends ActionBase {
         //セッションからログイン中の従業員情報を取得
         EmployeeView loginEmployee = (EmployeeView) getSessionScope(AttributeConst.LOGIN_EMP);
 
-        //ログイン中の従業員が作成した日報データを、指定されたページ数の一覧画面に表示する分取得する
+        //ログイン中の従業員が作成した日報データを、指定されたカーソルまたはページ数の一覧画面に表示する分取得する
+        Integer cursor = getCursor();
         int page = getPage();
-        List<ReportView> reports = service.getMinePerPage(loginEmployee, page);
+        List<ReportSummaryView> reports = cursor == null
+                ? service.getMinePerPage(loginEmployee, page)
+                : service.getMineOlderThan(loginEmployee, cursor);
+        //次ページのカーソルを取得する(次ページの有無の判定用に1件多く取得した日報はリストから除く)
+        Integer nextCursor = getNextCursor(reports);
 
         //ログイン中の従業員が作成した日報データの件数を取得
         long myReportsCount = service.countAllMine(loginEmployee);
@@ -53,6 +56,8 @@ public class TopAction extends ActionBase {
         putRequestScope(AttributeConst.REPORTS, reports); //取得した日報データ
         putRequestScope(AttributeConst.REP_COUNT, myReportsCount); //ログイン中の従業員が作成した日報の数
         putRequestScope(AttributeConst.PAGE, page); //ページ数
+        putRequestScope(AttributeConst.CURSOR, cursor); //カーソル
+        putRequestScope(AttributeConst.NEXT_CURSOR, nextCursor); //次ページのカーソル
         putRequestScope(AttributeConst.MAX_ROW, JpaConst.ROW_PER_PAGE); //1ページに表示するレコードの数
 
         //セッションにフラッシュメッセージが設定されている場合はリクエストスコープに移し替え、セッションからは削除する
@@ -0,0 +1,71 @@
+package actions.views;
+
+import java.time.LocalDate;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 日報の一覧画面に表示する項目のみを扱うViewモデル
+ * 日報の内容(content)を含まないため、一覧の取得時にLOB列を読み込まない
+ *
+ */
+@Getter //全てのクラスフィールドについてgetterを自動生成する(Lombok)
+@Setter //全てのクラスフィールドについてsetterを自動生成する(Lombok)
+@NoArgsConstructor //引数なしコンストラクタを自動生成する(Lombok)
+public class ReportSummaryView {
+
+    /**
+     * id
+     */
+    private Integer id;
+
+    /**
+     * 日報を登録した従業員(idと氏名のみ設定)
+     */
+    private EmployeeView employee;
+
+    /**
+     * いつの日報かを示す日付
+     */
+    private LocalDate reportDate;
+
+    /**
+     * 日報のタイトル
+     */
+    private String title;
+
+    /**
+     * いいね数
+     */
+    private Integer likeCount;
+
+    /**
+     * コンストラクタ
+     * JPQLのコンストラクタ式(SELECT NEW)から呼び出される
+     * @param id id
+     * @param employeeId 日報を登録した従業員のid
+     * @param employeeName 日報を登録した従業員の氏名
+     * @param reportDate いつの日報かを示す日付
+     * @param title 日報のタイトル
+     * @param likeCount いいね数
+     */
+    public ReportSummaryView(
+            Integer id,
+            Integer employeeId,
+            String employeeName,
+            LocalDate reportDate,
+            String title,
+            Integer likeCount) {
+        EmployeeView ev = new EmployeeView();
+        ev.setId(employeeId);
+        ev.setName(employeeName);
+
+        this.id = id;
+        this.employee = ev;
+        this.reportDate = reportDate;
+        this.title = title;
+        this.likeCount = likeCount;
+    }
+}
@@ -0,0 +1,74 @@
+package actions.views;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 日報の詳細画面が変更されたかどうかの判定に使用する項目のみを扱うViewモデル
+ * 日報の内容(content)を含まないため、取得時にLOB列を読み込まない
+ *
+ */
+@Getter //全てのクラスフィールドについてgetterを自動生成する(Lombok)
+@Setter //全てのクラスフィールドについてsetterを自動生成する(Lombok)
+@NoArgsConstructor //引数なしコンストラクタを自動生成する(Lombok)
+public class ReportVersionView {
+
+    /**
+     * id
+     */
+    private Integer id;
+
+    /**
+     * 日報を登録した従業員(idと更新日時のみ設定)
+     */
+    private EmployeeView employee;
+
+    /**
+     * 更新日時
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * いいね数
+     */
+    private Integer likeCount;
+
+    /**
+     * コンストラクタ
+     * JPQLのコンストラクタ式(SELECT NEW)から呼び出される
+     * @param id id
+     * @param employeeId 日報を登録した従業員のid
+     * @param employeeUpdatedAt 日報を登録した従業員の更新日時
+     * @param updatedAt 更新日時
+     * @param likeCount いいね数
+     */
+    public ReportVersionView(
+            Integer id,
+            Integer employeeId,
+            LocalDateTime employeeUpdatedAt,
+            LocalDateTime updatedAt,
+            Integer likeCount) {
+        EmployeeView ev = new EmployeeView();
+        ev.setId(employeeId);
+        ev.setUpdatedAt(employeeUpdatedAt);
+
+        this.id = id;
+        this.employee = ev;
+        this.updatedAt = updatedAt;
+        this.likeCount = likeCount;
+    }
+
+    /**
+     * いいね・フォローの確認に使用するReportViewのインスタンスを作成する(idと日報を登録した従業員のみ設定)
+     * @return ReportViewのインスタンス
+     */
+    public ReportView toReportView() {
+        ReportView rv = new ReportView();
+        rv.setId(id);
+        rv.setEmployee(employee);
+        return rv;
+    }
+}
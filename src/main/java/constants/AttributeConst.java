@@ -12,6 +12,8 @@ public enum AttributeConst {
     //一覧画面共通
     MAX_ROW("maxRow"),
     PAGE("page"),
+    CURSOR("cursor"),
+    NEXT_CURSOR("next_cursor"),
 
     //入力フォーム共通
     TOKEN("_token"),
@@ -45,6 +47,7 @@ public enum AttributeConst {
     REPORT("report"),
     REPORTS("reports"),
     REP_COUNT("reports_count"),
+    REP_LIST_HTML("report_list_html"),
     REP_ID("id"),
     REP_DATE("report_date"),
     REP_TITLE("title"),
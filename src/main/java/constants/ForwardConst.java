@@ -12,6 +12,7 @@ public enum ForwardConst {
     ACT_EMP("Employee"),
     ACT_REP("Report"),
     ACT_AUTH("Auth"),
+    ACT_METRICS("Metrics"),
 
     //command
     CMD("command"),
@@ -27,6 +28,7 @@ public enum ForwardConst {
     CMD_UPDATE("update"),
     CMD_DESTROY("destroy"),
     CMD_LIKE("like"),
+    CMD_UNLIKE("unlike"),
     CMD_SHOW_LIKES("showLikes"),
     CMD_FOLLOW("follow"),
     CMD_UNFOLLOW("unfollow"),
@@ -9,8 +9,12 @@ public interface JpaConst {
     //persistence-unit名
     String PERSISTENCE_UNIT_NAME = "daily_report_system";
 
+    //クエリのタイムアウト(ミリ秒)を指定するプロパティ名
+    String QUERY_TIMEOUT_HINT = "javax.persistence.query.timeout";
+
     //データ取得件数の最大値
     int ROW_PER_PAGE = 15; //1ページに表示するレコードの数
+    int RECONCILE_CHUNK_SIZE = 1000; //いいね数の再計算で1トランザクションに更新する日報のidの範囲
 
     //従業員テーブル
     String TABLE_EMP = "employees"; //テーブル名
@@ -23,6 +27,8 @@ public interface JpaConst {
     String EMP_COL_CREATED_AT = "created_at"; //登録日時
     String EMP_COL_UPDATED_AT = "updated_at"; //更新日時
     String EMP_COL_DELETE_FLAG = "delete_flag"; //削除フラグ
+    //従業員データの二次キャッシュ名(application.confのキャッシュ設定名)
+    String CACHE_EMP = "employees";
 
     int ROLE_ADMIN = 1; //管理者権限ON(管理者)
     int ROLE_GENERAL = 0; //管理者権限OFF(一般)
@@ -49,6 +55,7 @@ public interface JpaConst {
     String LIKE_COL_EMP = "employee_id"; //いいねした従業員のid
     String LIKE_COL_CREATED_AT = "created_at"; //登録日時
     String LIKE_COL_UPDATED_AT = "updated_at"; //更新日時
+    String LIKE_UK_REP_EMP = "uk_likes_rep_emp"; //日報のidと従業員のidの一意制約
 
     //日報テーブル
     String TABLE_FOLLOW = "following"; //テーブル名
@@ -58,19 +65,54 @@ public interface JpaConst {
     String FOLLOW_COL_FOLLOWED_EMP = "followed_employee_id"; //日報を作成した従業員のid
     String FOLLOW_COL_CREATED_AT = "created_at"; //登録日時
     String FOLLOW_COL_UPDATED_AT = "updated_at"; //更新日時
+    //フォローテーブルインデックス
+    String FOLLOW_IDX_EMPS = "idx_following_emps"; //フォローした従業員・フォローされた従業員
+
+    //タイムラインテーブル
+    String TABLE_FEED = "feeds"; //テーブル名
+    //タイムラインテーブルカラム
+    String FEED_COL_ID = "id"; //id
+    String FEED_COL_EMP = "employee_id"; //タイムラインを表示する従業員のid
+    String FEED_COL_REP = "report_id"; //タイムラインに表示する日報のid
+
+    //集計値テーブル
+    String TABLE_COUNTER = "counters"; //テーブル名
+    //集計値テーブルカラム
+    String COUNTER_COL_ID = "id"; //id
+    String COUNTER_COL_NAME = "counter_name"; //集計値の種類
+    String COUNTER_COL_TARGET = "target_id"; //集計対象のid(全体の集計値は0)
+    String COUNTER_COL_VALUE = "counter_value"; //集計値
+    String COUNTER_COL_UPDATED_AT = "updated_at"; //更新日時
+
+    //集計値の種類
+    String COUNTER_REP_ALL = "report.all"; //全ての日報の件数
+    String COUNTER_REP_MINE = "report.mine"; //従業員ごとの日報の件数(target_id:従業員のid)
+    String COUNTER_EMP_ALL = "employee.all"; //全ての従業員の件数
+    int COUNTER_TARGET_NONE = 0; //全体の集計値のtarget_id
 
     //Entity名
     String ENTITY_EMP = "employee"; //従業員
     String ENTITY_REP = "report"; //日報
     String ENTITY_LIKE = "like"; //いいね
     String ENTITY_FOLLOWING = "following"; //フォロー
+    String ENTITY_COUNTER = "counter"; //集計値
+    String ENTITY_FEED = "feed"; //タイムライン
 
     //JPQL内パラメータ
     String JPQL_PARM_CODE = "code"; //社員番号
-    String JPQL_PARM_PASSWORD = "password"; //パスワード
     String JPQL_PARM_EMPLOYEE = "employee"; //従業員
     String JPQL_PARM_REPORT = "report"; //日報
+    String JPQL_PARM_ID = "id"; //id
     String JPQL_PARM_FOLLOWING_EMPLOYEE = "followingEmployee"; //フォローしている従業員
+    String JPQL_PARM_FOLLOWED_EMPLOYEE = "followedEmployee"; //フォローされている従業員
+    String JPQL_PARM_CURSOR = "cursor"; //カーソル(前ページ最後の日報のid)
+    String JPQL_PARM_ID_FROM = "idFrom"; //範囲指定の開始id(この値を含まない)
+    String JPQL_PARM_ID_TO = "idTo"; //範囲指定の終了id(この値を含む)
+    String JPQL_PARM_NAME = "name"; //集計値の種類
+    String JPQL_PARM_TARGET = "target"; //集計対象のid
+    String JPQL_PARM_VALUE = "value"; //集計値・加算値
+    String JPQL_PARM_INITIAL_VALUE = "initialValue"; //未登録の場合に登録する集計値
+    String JPQL_PARM_UPDATED_AT = "updatedAt"; //更新日時
 
     //NamedQueryの nameとquery
     //全ての従業員をidの降順に取得する
@@ -79,40 +121,117 @@ public interface JpaConst {
     //全ての従業員の件数を取得する
     String Q_EMP_COUNT = ENTITY_EMP + ".count";
     String Q_EMP_COUNT_DEF = "SELECT COUNT(e) FROM Employee AS e";
-    //社員番号とハッシュ化済パスワードを条件に未削除の従業員を取得する
-    String Q_EMP_GET_BY_CODE_AND_PASS = ENTITY_EMP + ".getByCodeAndPass";
-    String Q_EMP_GET_BY_CODE_AND_PASS_DEF = "SELECT e FROM Employee AS e WHERE e.deleteFlag = 0 AND e.code = :" + JPQL_PARM_CODE + " AND e.password = :" + JPQL_PARM_PASSWORD;
+    //社員番号を条件に未削除の従業員を取得する(パスワードの照合はハッシュ値の方式に合わせてアプリケーションで行う)
+    String Q_EMP_GET_BY_CODE = ENTITY_EMP + ".getByCode";
+    String Q_EMP_GET_BY_CODE_DEF = "SELECT e FROM Employee AS e WHERE e.deleteFlag = 0 AND e.code = :" + JPQL_PARM_CODE;
     //指定した社員番号を保持する従業員の件数を取得する
     String Q_EMP_COUNT_RESISTERED_BY_CODE = ENTITY_EMP + ".countRegisteredByCode";
     String Q_EMP_COUNT_RESISTERED_BY_CODE_DEF = "SELECT COUNT(e) FROM Employee AS e WHERE e.code = :" + JPQL_PARM_CODE;
+    //日報の一覧画面に表示する項目のみを取得する(日報の内容を除く)
+    String REP_SELECT_SUMMARY = "SELECT NEW actions.views.ReportSummaryView(r.id, e.id, e.name, r.reportDate, r.title, r.likeCount) FROM Report AS r JOIN r.employee AS e";
     //全ての日報をidの降順に取得する
     String Q_REP_GET_ALL = ENTITY_REP + ".getAll";
-    String Q_REP_GET_ALL_DEF = "SELECT r FROM Report AS r ORDER BY r.id DESC";
+    String Q_REP_GET_ALL_DEF = REP_SELECT_SUMMARY + " ORDER BY r.id DESC";
+    //指定したidより古い日報をidの降順に取得する(カーソル方式のページング)
+    String Q_REP_GET_ALL_OLDER = ENTITY_REP + ".getAllOlder";
+    String Q_REP_GET_ALL_OLDER_DEF = REP_SELECT_SUMMARY + " WHERE r.id < :" + JPQL_PARM_CURSOR + " ORDER BY r.id DESC";
     //全ての日報の件数を取得する
     String Q_REP_COUNT = ENTITY_REP + ".count";
     String Q_REP_COUNT_DEF = "SELECT COUNT(r) FROM Report AS r";
     //指定した従業員が作成した日報を全件idの降順で取得する
     String Q_REP_GET_ALL_MINE = ENTITY_REP + ".getAllMine";
-    String Q_REP_GET_ALL_MINE_DEF = "SELECT r FROM Report AS r WHERE r.employee = :" + JPQL_PARM_EMPLOYEE + " ORDER BY r.id DESC";
+    String Q_REP_GET_ALL_MINE_DEF = REP_SELECT_SUMMARY + " WHERE r.employee = :" + JPQL_PARM_EMPLOYEE + " ORDER BY r.id DESC";
+    //指定した従業員が作成した日報のうち、指定したidより古いものをidの降順で取得する(カーソル方式のページング)
+    String Q_REP_GET_ALL_MINE_OLDER = ENTITY_REP + ".getAllMineOlder";
+    String Q_REP_GET_ALL_MINE_OLDER_DEF = REP_SELECT_SUMMARY + " WHERE r.employee = :" + JPQL_PARM_EMPLOYEE + " AND r.id < :" + JPQL_PARM_CURSOR + " ORDER BY r.id DESC";
     //指定した従業員が作成した日報の件数を取得する
     String Q_REP_COUNT_ALL_MINE = ENTITY_REP + ".countAllMine";
     String Q_REP_COUNT_ALL_MINE_DEF = "SELECT COUNT(r) FROM Report AS r WHERE r.employee = :" + JPQL_PARM_EMPLOYEE;
+    //idを条件に、日報の詳細画面が変更されたかどうかの判定に使用する項目のみを取得する(日報の内容を除く)
+    String Q_REP_GET_VERSION = ENTITY_REP + ".getVersion";
+    String Q_REP_GET_VERSION_DEF = "SELECT NEW actions.views.ReportVersionView(r.id, e.id, e.updatedAt, r.updatedAt, r.likeCount) FROM Report AS r JOIN r.employee AS e WHERE r.id = :" + JPQL_PARM_ID;
+    //タイムラインテーブルから日報を一覧表示用の項目のみ取得するSELECT句
+    //(タイムラインテーブルの従業員id・日報idのインデックスを範囲検索し、日報・従業員は主キーで結合する)
+    String FEED_SELECT_SUMMARY = "SELECT NEW actions.views.ReportSummaryView(r.id, e.id, e.name, r.reportDate, r.title, r.likeCount) FROM Feed AS fd JOIN fd.report AS r JOIN r.employee AS e";
     //フォローしている従業員が作成した日報を全件idの降順で取得する
     String Q_REP_GET_ALL_FOLLOWING = ENTITY_REP + ".getAllFollowing";
-    String Q_REP_GET_ALL_FOLLOWING_DEF = "SELECT r FROM Report AS r, Following AS f WHERE r.employee = f.followedEmployee AND f.followingEmployee =:" + JPQL_PARM_EMPLOYEE + " ORDER BY r.id DESC";
-    //フォローしている従業員が作成した日報の件数を取得する
-    String Q_REP_COUNT_ALL_FOLLOWING = ENTITY_REP + ".countAllFollowing";
-    String Q_REP_COUNT_ALL_FOLLOWING_DEF = "SELECT COUNT(r) FROM Report AS r, Following AS f WHERE r.employee = f.followedEmployee AND f.followingEmployee =:" + JPQL_PARM_EMPLOYEE;
+    String Q_REP_GET_ALL_FOLLOWING_DEF = FEED_SELECT_SUMMARY + " WHERE fd.employee = :" + JPQL_PARM_EMPLOYEE + " ORDER BY fd.report.id DESC";
+    //フォローしている従業員が作成した日報のうち、指定したidより古いものをidの降順で取得する(カーソル方式のページング)
+    String Q_REP_GET_ALL_FOLLOWING_OLDER = ENTITY_REP + ".getAllFollowingOlder";
+    String Q_REP_GET_ALL_FOLLOWING_OLDER_DEF = FEED_SELECT_SUMMARY + " WHERE fd.employee = :" + JPQL_PARM_EMPLOYEE + " AND fd.report.id < :" + JPQL_PARM_CURSOR + " ORDER BY fd.report.id DESC";
     //指定した日報のいいねを全件idの降順で取得する
+    //(いいねした従業員は同じSQLで取得する。日報は引数と同一のため永続化コンテキストから解決される)
     String Q_LIKE_GET_ALL_MINE = ENTITY_LIKE + ".getAllMine";
-    String Q_LIKE_GET_ALL_MINE_DEF = "SELECT l FROM Like AS l WHERE l.report = :" + JPQL_PARM_REPORT + " ORDER BY l.id DESC";
+    String Q_LIKE_GET_ALL_MINE_DEF = "SELECT l FROM Like AS l JOIN FETCH l.employee WHERE l.report = :" + JPQL_PARM_REPORT + " ORDER BY l.id DESC";
+    //指定した日報・従業員のいいねの件数を取得する(いいね済みかどうかの確認用)
+    String Q_LIKE_COUNT_MINE_BY_EMP = ENTITY_LIKE + ".countMineByEmployee";
+    String Q_LIKE_COUNT_MINE_BY_EMP_DEF = "SELECT COUNT(l) FROM Like AS l WHERE l.report = :" + JPQL_PARM_REPORT + " AND l.employee = :" + JPQL_PARM_EMPLOYEE;
+    //指定した日報・従業員のいいねを削除する
+    String Q_LIKE_DELETE_MINE = ENTITY_LIKE + ".deleteMine";
+    String Q_LIKE_DELETE_MINE_DEF = "DELETE FROM Like AS l WHERE l.report = :" + JPQL_PARM_REPORT + " AND l.employee = :" + JPQL_PARM_EMPLOYEE;
+    //指定した日報のいいね数を取得する(本文などの列は読み込まない)
+    String Q_REP_GET_LIKE_COUNT = ENTITY_REP + ".getLikeCount";
+    String Q_REP_GET_LIKE_COUNT_DEF = "SELECT r.likeCount FROM Report AS r WHERE r.id = :" + JPQL_PARM_ID;
+    //指定した日報のいいね数に加算する(1文で加算し、同時にいいねされても加算漏れが発生しないようにする)
+    String Q_REP_ADD_LIKE_COUNT = ENTITY_REP + ".addLikeCount";
+    String Q_REP_ADD_LIKE_COUNT_DEF = "UPDATE Report AS r SET r.likeCount = r.likeCount + :" + JPQL_PARM_VALUE + " WHERE r.id = :" + JPQL_PARM_ID;
     //指定した日報のいいねの件数を取得する
     String Q_LIKE_COUNT_ALL_MINE = ENTITY_LIKE + ".countAllMine";
     String Q_LIKE_COUNT_ALL_MINE_DEF = "SELECT COUNT(l) FROM Like AS l WHERE l.report = :" + JPQL_PARM_REPORT;
     //指定した従業員のフォロー情報を全件idの降順で取得する
+    //(フォローした従業員・フォローされた従業員は同じSQLで取得する)
     String Q_FOLLOW_GET_ALL_MINE = ENTITY_FOLLOWING + ".getAllMine";
-    String Q_FOLLOW_GET_ALL_MINE_DEF = "SELECT f FROM Following AS f WHERE f.followingEmployee = :" + JPQL_PARM_FOLLOWING_EMPLOYEE + " ORDER BY f.id DESC";
+    String Q_FOLLOW_GET_ALL_MINE_DEF = "SELECT f FROM Following AS f JOIN FETCH f.followingEmployee JOIN FETCH f.followedEmployee WHERE f.followingEmployee = :" + JPQL_PARM_FOLLOWING_EMPLOYEE + " ORDER BY f.id DESC";
     //指定した従業員のフォロー情報の件数を取得する
     String Q_FOLLOW_COUNT_ALL_MINE = ENTITY_FOLLOWING + ".countAllMine";
     String Q_FOLLOW_COUNT_ALL_MINE_DEF = "SELECT COUNT(f) FROM Following AS f WHERE f.followingEmployee = :" + JPQL_PARM_FOLLOWING_EMPLOYEE;
+    //指定した従業員から指定した従業員へのフォロー情報の件数を取得する(フォロー済みかどうかの確認用)
+    String Q_FOLLOW_COUNT_BY_EMPS = ENTITY_FOLLOWING + ".countByEmployees";
+    String Q_FOLLOW_COUNT_BY_EMPS_DEF = "SELECT COUNT(f) FROM Following AS f WHERE f.followingEmployee = :" + JPQL_PARM_FOLLOWING_EMPLOYEE + " AND f.followedEmployee = :" + JPQL_PARM_FOLLOWED_EMPLOYEE;
+    //指定した従業員から指定した従業員へのフォロー情報を削除する
+    String Q_FOLLOW_DELETE_BY_EMPS = ENTITY_FOLLOWING + ".deleteByEmployees";
+    String Q_FOLLOW_DELETE_BY_EMPS_DEF = "DELETE FROM Following AS f WHERE f.followingEmployee = :" + JPQL_PARM_FOLLOWING_EMPLOYEE + " AND f.followedEmployee = :" + JPQL_PARM_FOLLOWED_EMPLOYEE;
+    //従業員ごとの日報の件数を取得する(集計値の再計算用)
+    String Q_REP_COUNT_GROUP_BY_EMP = ENTITY_REP + ".countGroupByEmployee";
+    String Q_REP_COUNT_GROUP_BY_EMP_DEF = "SELECT r.employee.id, COUNT(r) FROM Report AS r GROUP BY r.employee.id";
+    //指定したidの範囲の日報のいいね数を、いいねテーブルの件数と一致させる(集計値の再計算用)
+    String Q_REP_RECONCILE_LIKE_COUNT = ENTITY_REP + ".reconcileLikeCount";
+    String Q_REP_RECONCILE_LIKE_COUNT_DEF = "UPDATE Report AS r SET r.likeCount = (SELECT COUNT(l) FROM Like AS l WHERE l.report = r) WHERE r.id > :" + JPQL_PARM_ID_FROM + " AND r.id <= :" + JPQL_PARM_ID_TO + " AND r.likeCount <> (SELECT COUNT(l) FROM Like AS l WHERE l.report = r)";
+    //日報の最大のidを取得する
+    String Q_REP_GET_MAX_ID = ENTITY_REP + ".getMaxId";
+    String Q_REP_GET_MAX_ID_DEF = "SELECT MAX(r.id) FROM Report AS r";
+    //指定した種類・対象の集計値を取得する
+    String Q_COUNTER_GET = ENTITY_COUNTER + ".get";
+    String Q_COUNTER_GET_DEF = "SELECT c.value FROM Counter AS c WHERE c.name = :" + JPQL_PARM_NAME + " AND c.targetId = :" + JPQL_PARM_TARGET;
+    //指定した種類・対象の集計値に加算する
+    String Q_COUNTER_ADD = ENTITY_COUNTER + ".add";
+    String Q_COUNTER_ADD_DEF = "UPDATE Counter AS c SET c.value = c.value + :" + JPQL_PARM_VALUE + ", c.updatedAt = :" + JPQL_PARM_UPDATED_AT + " WHERE c.name = :" + JPQL_PARM_NAME + " AND c.targetId = :" + JPQL_PARM_TARGET;
+    //指定した種類・対象の集計値に加算する(未登録の場合は指定した値で登録する 並行して登録された場合も一意制約違反にせず加算する)
+    //JPQLにはINSERT ... VALUESがないためSQLで定義する
+    String Q_COUNTER_UPSERT = ENTITY_COUNTER + ".upsert";
+    String Q_COUNTER_UPSERT_DEF = "INSERT INTO " + TABLE_COUNTER + " (" + COUNTER_COL_NAME + ", " + COUNTER_COL_TARGET + ", " + COUNTER_COL_VALUE + ", " + COUNTER_COL_UPDATED_AT + ")"
+            + " VALUES (:" + JPQL_PARM_NAME + ", :" + JPQL_PARM_TARGET + ", :" + JPQL_PARM_INITIAL_VALUE + ", :" + JPQL_PARM_UPDATED_AT + ")"
+            + " ON DUPLICATE KEY UPDATE " + COUNTER_COL_VALUE + " = " + COUNTER_COL_VALUE + " + :" + JPQL_PARM_VALUE + ", " + COUNTER_COL_UPDATED_AT + " = :" + JPQL_PARM_UPDATED_AT;
+    //全ての日報の件数の集計値を数え直す(件数を数えて更新するまでを1つのSQLで行い、並行して加算された値を失わないようにする)
+    String Q_COUNTER_RECOUNT_REP_ALL = ENTITY_COUNTER + ".recountReportAll";
+    String Q_COUNTER_RECOUNT_REP_ALL_DEF = "UPDATE Counter AS c SET c.value = (SELECT COUNT(r) FROM Report AS r), c.updatedAt = :" + JPQL_PARM_UPDATED_AT + " WHERE c.name = :" + JPQL_PARM_NAME;
+    //全ての従業員の件数の集計値を数え直す
+    String Q_COUNTER_RECOUNT_EMP_ALL = ENTITY_COUNTER + ".recountEmployeeAll";
+    String Q_COUNTER_RECOUNT_EMP_ALL_DEF = "UPDATE Counter AS c SET c.value = (SELECT COUNT(e) FROM Employee AS e), c.updatedAt = :" + JPQL_PARM_UPDATED_AT + " WHERE c.name = :" + JPQL_PARM_NAME;
+    //従業員ごとの日報の件数の集計値を数え直す(日報のない従業員は0にする)
+    String Q_COUNTER_RECOUNT_REP_MINE = ENTITY_COUNTER + ".recountReportMine";
+    String Q_COUNTER_RECOUNT_REP_MINE_DEF = "UPDATE Counter AS c SET c.value = (SELECT COUNT(r) FROM Report AS r WHERE r.employee.id = c.targetId), c.updatedAt = :" + JPQL_PARM_UPDATED_AT + " WHERE c.name = :" + JPQL_PARM_NAME;
+    //指定した日報を、作成者をフォローしている従業員のタイムラインに追加する
+    String Q_FEED_FAN_OUT = ENTITY_FEED + ".fanOut";
+    String Q_FEED_FAN_OUT_DEF = "INSERT INTO Feed (employee, report) SELECT DISTINCT f.followingEmployee, r FROM Report AS r, Following AS f WHERE f.followedEmployee = r.employee AND r.id = :" + JPQL_PARM_ID;
+    //フォローした従業員が作成した日報を、フォローした従業員のタイムラインに追加する(追加済みの日報は除く)
+    String Q_FEED_ADD_FOLLOWING = ENTITY_FEED + ".addFollowing";
+    String Q_FEED_ADD_FOLLOWING_DEF = "INSERT INTO Feed (employee, report) SELECT DISTINCT f.followingEmployee, r FROM Report AS r, Following AS f WHERE f.followedEmployee = r.employee AND f.followingEmployee = :" + JPQL_PARM_FOLLOWING_EMPLOYEE + " AND f.followedEmployee = :" + JPQL_PARM_FOLLOWED_EMPLOYEE
+            + " AND NOT EXISTS (SELECT fd.id FROM Feed AS fd WHERE fd.employee = f.followingEmployee AND fd.report = r)";
+    //フォローを解除した従業員が作成した日報を、フォローを解除した従業員のタイムラインから削除する
+    String Q_FEED_REMOVE_FOLLOWING = ENTITY_FEED + ".removeFollowing";
+    String Q_FEED_REMOVE_FOLLOWING_DEF = "DELETE FROM Feed AS fd WHERE fd.employee = :" + JPQL_PARM_FOLLOWING_EMPLOYEE + " AND fd.report IN (SELECT r FROM Report AS r WHERE r.employee = :" + JPQL_PARM_FOLLOWED_EMPLOYEE + ")";
+    //指定した従業員のタイムラインの日報の件数を取得する
+    String Q_FEED_COUNT_ALL_MINE = ENTITY_FEED + ".countAllMine";
+    String Q_FEED_COUNT_ALL_MINE_DEF = "SELECT COUNT(fd) FROM Feed AS fd WHERE fd.employee = :" + JPQL_PARM_EMPLOYEE;
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ public enum MessageConst {
     I_UPDATED("更新が完了しました。"),
     I_DELETED("削除が完了しました。"),
     I_LIKED("いいねしました。"),
+    I_UNLIKED("いいねを取り消しました。"),
     I_FOLLOWED("フォローしました。"),
     I_UNFOLLOWED("フォローを外しました。"),
 
@@ -25,7 +26,11 @@ public enum MessageConst {
     E_NOEMP_CODE("社員番号を入力してください。"),
     E_EMP_CODE_EXIST("入力された社員番号の情報は既に存在しています。"),
     E_NOTITLE("タイトルを入力してください。"),
-    E_NOCONTENT("内容を入力してください。");
+    E_NOCONTENT("内容を入力してください。"),
+
+    //いいね
+    E_ALREADY_LIKED("既にいいねしています。"),
+    E_NOT_LIKED("いいねしていません。");
 
 
     /**
@@ -7,7 +7,61 @@ package constants;
 public enum PropertyConst {
 
     //ペッパー文字列
-    PEPPER("pepper");
+    PEPPER("pepper"),
+
+    //集計値の再計算間隔(分) 0以下の場合は再計算しない
+    COUNTER_RECONCILE_INTERVAL("counter.reconcile_interval_minutes"),
+
+    //名前付きクエリの実行時間をログに出力する閾値(ミリ秒) 負の場合は出力しない
+    SLOW_QUERY_THRESHOLD("slow_query.threshold_ms"),
+
+    //閾値を超えた名前付きクエリの実行計画(EXPLAIN)を初回のみ取得するかどうか(true/false)
+    SLOW_QUERY_EXPLAIN("slow_query.explain"),
+
+    //起動時にスキーマのマイグレーション(db/migration)を実行するかどうか(true/false)
+    DB_MIGRATE_ON_STARTUP("db.migrate_on_startup"),
+
+    //パスワードのハッシュ化(PBKDF2)の反復回数 変更するとログイン時に新しい回数でハッシュ化し直す
+    PASSWORD_HASH_ITERATIONS("password.hash.iterations"),
+
+    //パスワードのハッシュ化を同時に実行するスレッド数(デフォルトはCPUコア数)
+    PASSWORD_HASH_THREADS("password.hash.threads"),
+
+    //パスワードのハッシュ化の実行待ち件数の上限 超えた場合はログインを受け付けない
+    PASSWORD_HASH_QUEUE_SIZE("password.hash.queue_size"),
+
+    //パスワードのハッシュ化の完了を待つ時間(ミリ秒)
+    PASSWORD_HASH_TIMEOUT("password.hash.timeout_ms"),
+
+    //コンテナのスレッドとは別のスレッドで非同期に実行するaction/command(カンマ区切り、"action/command:制限時間(ミリ秒)"で個別に指定可)
+    ASYNC_COMMANDS("async.commands"),
+
+    //非同期に実行するaction/commandの、完了までの制限時間(ミリ秒)のデフォルト値
+    ASYNC_TIMEOUT("async.timeout_ms"),
+
+    //非同期に実行するスレッド数(コネクションプールの最大接続数に合わせる)
+    ASYNC_THREADS("async.threads"),
+
+    //非同期に実行する処理の実行待ち件数の上限 超えた場合はリクエストを受け付けない
+    ASYNC_QUEUE_SIZE("async.queue_size"),
+
+    //非同期に実行する処理を仮想スレッドで実行するかどうか(true/false、Java 21以降で実行している場合のみ有効)
+    ASYNC_VIRTUAL_THREADS("async.virtual_threads"),
+
+    //描画済みの一覧画面のHTMLを保持する件数の上限 0の場合は保持しない
+    FRAGMENT_CACHE_MAX_ENTRIES("fragment_cache.max_entries"),
+
+    //レスポンスを圧縮する最小サイズ(バイト) 未満の場合は圧縮しない
+    COMPRESSION_MIN_SIZE("compression.min_size"),
+
+    //レスポンスの圧縮レベル(1:速度優先～9:圧縮率優先)
+    COMPRESSION_LEVEL("compression.level"),
+
+    //圧縮するレスポンスのContent-Type(カンマ区切り)
+    COMPRESSION_MIME_TYPES("compression.mime_types"),
+
+    //ビルド時に連結・圧縮したCSSのパス(assets.propertiesで設定 未設定の場合はcss/のファイルを個別に読み込む)
+    ASSETS_CSS("assets.css");
 
     private final String text;
     private PropertyConst(final String text) {
@@ -0,0 +1,177 @@
+package controllers;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import constants.PropertyConst;
+import utils.PropertyUtil;
+
+/**
+ * 非同期で実行するaction/commandを、コンテナのスレッドとは別のスレッドで実行するクラス
+ * 実行中・実行待ちの件数が上限に達している場合は受け付けない
+ *
+ */
+public final class ActionExecutor {
+
+    /**
+     * 実行待ちの上限を超えた場合の例外メッセージ
+     */
+    private static final String REJECTED = "action executor is full";
+
+    /**
+     * 非同期で実行するaction/commandのデフォルト値(一覧・タイムライン等、DBの検索に時間がかかる画面)
+     */
+    private static final String DEFAULT_COMMANDS = "Top/index,Report/index,Report/showTimeline,Report/showLikes,Employee/index";
+
+    /**
+     * 完了までの制限時間(ミリ秒)のデフォルト値
+     */
+    private static final int DEFAULT_TIMEOUT = 10000;
+
+    /**
+     * 実行するスレッド数のデフォルト値(コネクションプールの最大接続数に合わせる)
+     */
+    private static final int DEFAULT_THREADS = 20;
+
+    /**
+     * 実行待ち件数の上限のデフォルト値
+     */
+    private static final int DEFAULT_QUEUE_SIZE = 200;
+
+    /**
+     * "action/command"と制限時間(ミリ秒)の対応表
+     */
+    private final Map<String, Integer> timeouts;
+
+    private final ExecutorService executor;
+
+    /**
+     * 実行中・実行待ちの件数の上限(取得できない場合は受け付けない)
+     */
+    private final Semaphore permits;
+
+    private ActionExecutor(Map<String, Integer> timeouts, ExecutorService executor, int maxTasks) {
+        this.timeouts = timeouts;
+        this.executor = executor;
+        this.permits = new Semaphore(maxTasks);
+    }
+
+    /**
+     * application.propertiesの設定からActionExecutorを作成する
+     * @return 作成したインスタンス 非同期で実行するaction/commandがない場合null
+     */
+    public static ActionExecutor fromProperties() {
+        int defaultTimeout = PropertyUtil.getInt(PropertyConst.ASYNC_TIMEOUT, DEFAULT_TIMEOUT);
+        Map<String, Integer> timeouts = parseCommands(
+                PropertyUtil.getString(PropertyConst.ASYNC_COMMANDS, DEFAULT_COMMANDS), defaultTimeout);
+        if (timeouts.isEmpty()) {
+            return null;
+        }
+
+        int threads = Math.max(PropertyUtil.getInt(PropertyConst.ASYNC_THREADS, DEFAULT_THREADS), 1);
+        int queueSize = Math.max(PropertyUtil.getInt(PropertyConst.ASYNC_QUEUE_SIZE, DEFAULT_QUEUE_SIZE), 0);
+        boolean virtual = Boolean.parseBoolean(PropertyUtil.getString(PropertyConst.ASYNC_VIRTUAL_THREADS, "false"));
+
+        ExecutorService executor = virtual ? newVirtualThreadExecutor() : null;
+        if (executor == null) {
+            AtomicInteger seq = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "action-executor-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        return new ActionExecutor(timeouts, executor, threads + queueSize);
+    }
+
+    /**
+     * 非同期で実行するaction/commandの場合、完了までの制限時間を取得する
+     * @param action actionの値
+     * @param command commandの値
+     * @return 制限時間(ミリ秒) 非同期で実行しない場合null
+     */
+    public Integer getTimeout(String action, String command) {
+        return timeouts.get(action + "/" + command);
+    }
+
+    /**
+     * 処理を実行する(実行中・実行待ちの件数が上限に達している場合は実行しない)
+     * @param task 処理
+     * @throws RejectedExecutionException 実行中・実行待ちの件数が上限に達している場合
+     */
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException(REJECTED);
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 実行中の処理の完了を待って停止する
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * "action/command"または"action/command:制限時間(ミリ秒)"のカンマ区切りの設定を、制限時間の対応表に変換する
+     */
+    private static Map<String, Integer> parseCommands(String value, int defaultTimeout) {
+        Map<String, Integer> timeouts = new HashMap<>();
+        for (String entry : value.split(",")) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+
+            int colon = entry.indexOf(':');
+            if (colon < 0) {
+                timeouts.put(entry, defaultTimeout);
+            } else {
+                timeouts.put(entry.substring(0, colon).trim(), Integer.parseInt(entry.substring(colon + 1).trim()));
+            }
+        }
+        return Collections.unmodifiableMap(timeouts);
+    }
+
+    /**
+     * 仮想スレッドで実行するExecutorServiceを生成する(Java 21以降で実行している場合のみ)
+     * @return 生成したインスタンス 仮想スレッドを利用できない場合null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package controllers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import actions.ActionBase;
+import constants.ForwardConst;
+
+/**
+ * 1つのActionクラスについて、インスタンスの生成とcommandに該当するメソッドの呼び出し方法を保持するクラス
+ * アプリケーション起動時に1度だけ作成し、リクエストごとのリフレクションによる検索を行わない
+ *
+ */
+public final class ActionRoute {
+
+    /**
+     * Actionクラスのパッケージ名とクラス名の接尾辞(例: action=Employee の場合 actions.EmployeeAction)
+     */
+    private static final String ACTION_CLASS_FORMAT = "actions.%sAction";
+
+    /**
+     * commandとして呼び出さないメソッド名
+     */
+    private static final String PROCESS_METHOD = "process";
+
+    /**
+     * 引数なしコンストラクタ ()ActionBase
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * commandの値と、該当するメソッド (ActionBase)void の対応表
+     */
+    private final Map<String, MethodHandle> commands;
+
+    private ActionRoute(MethodHandle constructor, Map<String, MethodHandle> commands) {
+        this.constructor = constructor;
+        this.commands = commands;
+    }
+
+    /**
+     * ForwardConstに定義された全てのactionについて、actionの値とActionRouteの対応表を作成する
+     * @return actionの値とActionRouteの対応表
+     * @throws ReflectiveOperationException 該当するActionクラスが存在しない、またはインスタンスを生成できない場合
+     */
+    public static Map<String, ActionRoute> buildAll() throws ReflectiveOperationException {
+
+        Map<String, ActionRoute> routes = new HashMap<>();
+        for (ForwardConst fc : ForwardConst.values()) {
+            //ACT_で始まる定数(ACT自体は除く)がactionの値
+            if (fc.name().startsWith(ForwardConst.ACT.name() + "_")) {
+                Class<?> type = Class.forName(String.format(ACTION_CLASS_FORMAT, fc.getValue()));
+                routes.put(fc.getValue(), of(type.asSubclass(ActionBase.class)));
+            }
+        }
+
+        return Collections.unmodifiableMap(routes);
+    }
+
+    /**
+     * 指定したActionクラスの引数なしコンストラクタと、commandとして呼び出せるメソッドを取得し、ActionRouteを作成する
+     * commandとして呼び出せるのは、そのクラスで宣言された引数なし・戻り値なしのpublicなインスタンスメソッド(processを除く)
+     * @param type Actionクラス
+     * @return ActionRoute
+     * @throws ReflectiveOperationException 引数なしコンストラクタが存在しない、またはアクセスできない場合
+     */
+    public static ActionRoute of(Class<? extends ActionBase> type) throws ReflectiveOperationException {
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(ActionBase.class));
+
+        Map<String, MethodHandle> commands = new HashMap<>();
+        for (Method m : type.getDeclaredMethods()) {
+            int modifiers = m.getModifiers();
+            if (Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && !m.isSynthetic()
+                    && m.getParameterCount() == 0 && m.getReturnType() == void.class
+                    && !PROCESS_METHOD.equals(m.getName())) {
+
+                commands.put(m.getName(), lookup.unreflect(m)
+                        .asType(MethodType.methodType(void.class, ActionBase.class)));
+            }
+        }
+
+        return new ActionRoute(constructor, Collections.unmodifiableMap(commands));
+    }
+
+    /**
+     * Actionクラスのインスタンスを生成する
+     * @return Actionクラスのインスタンス
+     */
+    public ActionBase newAction() {
+        try {
+            return (ActionBase) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * commandの値と、該当するメソッドの対応表を取得する
+     * @return commandの値とメソッド (ActionBase)void の対応表
+     */
+    public Map<String, MethodHandle> getCommands() {
+        return commands;
+    }
+
+}
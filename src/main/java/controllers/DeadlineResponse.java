@@ -0,0 +1,232 @@
+package controllers;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * 非同期で実行するActionクラスに渡すレスポンス
+ * 制限時間を過ぎてタイムアウトのレスポンスを返した後は、処理中のスレッドからの書き込みを拒否する
+ * (タイムアウトのレスポンスと処理結果が混ざらないよう、ヘッダの設定も含めて書き込ませない)
+ */
+class DeadlineResponse extends HttpServletResponseWrapper {
+
+    /**
+     * レスポンスの状態
+     */
+    enum State {
+        //実行待ち
+        QUEUED,
+        //処理中(レスポンスには書き込んでいない)
+        RUNNING,
+        //処理中のスレッドが書き込み中
+        WRITING,
+        //タイムアウトのレスポンスを返した
+        TIMED_OUT
+    }
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+
+    /**
+     * 処理中のスレッドが終了したことを通知する
+     */
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    DeadlineResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * 処理を開始する
+     * @return true: 開始できる false: 実行待ちの間にタイムアウトのレスポンスを返した
+     */
+    boolean start() {
+        return state.compareAndSet(State.QUEUED, State.RUNNING);
+    }
+
+    /**
+     * 処理中のスレッドがレスポンスに書き込む権利を取得する
+     * @return true: 書き込める false: タイムアウトのレスポンスを返した後のため書き込めない
+     */
+    boolean tryClaim() {
+        return state.get() == State.WRITING || state.compareAndSet(State.RUNNING, State.WRITING);
+    }
+
+    /**
+     * 制限時間を過ぎたことを記録する(処理中のスレッドが書き込みを開始している場合は何もしない)
+     * @return 記録する前の状態
+     */
+    State timeOut() {
+        while (true) {
+            State current = state.get();
+            if (current == State.WRITING || current == State.TIMED_OUT
+                    || state.compareAndSet(current, State.TIMED_OUT)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * 処理中のスレッドが終了したことを通知する
+     */
+    void finish() {
+        finished.countDown();
+    }
+
+    /**
+     * 処理中のスレッドが終了するまで待つ
+     * @throws InterruptedException
+     */
+    void awaitFinish() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * 書き込む権利を取得する(取得できない場合は処理を中断させる)
+     */
+    private void claim() {
+        if (!tryClaim()) {
+            throw new IllegalStateException("response already timed out");
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        claim();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        claim();
+        return super.getWriter();
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        claim();
+        super.setCharacterEncoding(charset);
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        claim();
+        super.setContentLength(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        claim();
+        super.setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentType(String type) {
+        claim();
+        super.setContentType(type);
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        claim();
+        super.setBufferSize(size);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        claim();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        claim();
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        claim();
+        super.reset();
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        claim();
+        super.setLocale(loc);
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        claim();
+        super.addCookie(cookie);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        claim();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        claim();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        claim();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        claim();
+        super.setDateHeader(name, date);
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        claim();
+        super.addDateHeader(name, date);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        claim();
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        claim();
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        claim();
+        super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        claim();
+        super.addIntHeader(name, value);
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        claim();
+        super.setStatus(sc);
+    }
+
+}
@@ -1,9 +1,20 @@
 package controllers;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.ServletException;
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -12,33 +23,93 @@ import javax.servlet.http.HttpServletResponse;
 import actions.ActionBase;
 import actions.UnknownAction;
 import constants.ForwardConst;
+import utils.MetricsUtil;
+import utils.MetricsUtil.RequestStats;
 
 /**
  * フロントコントローラ
  *
  */
-@WebServlet("/")
+@WebServlet(urlPatterns = "/", asyncSupported = true)
 public class FrontController extends HttpServlet {
     private static final long serialVersionUID = 1L;
 
+    /**
+     * 混み合っている場合・制限時間内に処理を開始できなかった場合に、再度リクエストするまでの秒数
+     */
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    /**
+     * actionの値とActionRouteの対応表(起動時に1度だけ作成する)
+     */
+    private Map<String, ActionRoute> routes;
+
+    /**
+     * DBの検索に時間がかかるaction/commandを、コンテナのスレッドとは別のスレッドで実行するExecutor(対象がない場合null)
+     */
+    private ActionExecutor executor;
+
     public FrontController() {
         super();
     }
 
+    /**
+     * 全てのActionクラスについて、インスタンスの生成とcommandに該当するメソッドの呼び出し方法を事前に取得する
+     * @see HttpServlet#init()
+     */
+    @Override
+    public void init() throws ServletException {
+        try {
+            routes = ActionRoute.buildAll();
+        } catch (ReflectiveOperationException e) {
+            throw new ServletException(e);
+        }
+        executor = ActionExecutor.fromProperties();
+    }
+
+    /**
+     * 非同期で実行中の処理の完了を待ってExecutorを停止する
+     * @see HttpServlet#destroy()
+     */
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
     /**
      * @see HttpServlet#doGet(HttpServletRequest request, HttpServletResponse response)
      */
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
+        //リクエストパラメータ"action"の値(例:"Employee"、"Report")に該当するActionRoute
+        ActionRoute route = routes.get(request.getParameter(ForwardConst.ACT.getValue()));
+
         //パラメータに該当するActionクラスのインスタンス
-        ActionBase action = getAction(request, response);
+        ActionBase action = getAction(route);
+
+        //パラメータに該当するcommandの対応表
+        Map<String, MethodHandle> commands = route == null ? Collections.emptyMap() : route.getCommands();
+
+        //DBの検索に時間がかかるaction/commandは、コンテナのスレッドを解放して別のスレッドで実行する
+        Integer timeout = getAsyncTimeout(request);
+        if (timeout != null) {
+            processAsync(action, commands, request, response, timeout);
+            return;
+        }
 
-        //サーブレットコンテキスト、リクエスト、レスポンスをActionインスタンスのフィールドに設定
-        action.init(getServletContext(), request, response);
+        //サーブレットコンテキスト、リクエスト、レスポンス、commandの対応表をActionインスタンスのフィールドに設定
+        action.init(getServletContext(), request, response, commands);
 
-        //Actionクラスの処理を呼び出し
-        action.process();
+        try {
+            //Actionクラスの処理を呼び出し
+            action.process();
+        } finally {
+            //リクエスト内で共有したEntityManagerを必ずクローズする
+            action.closeEntityManager();
+        }
     }
 
 
@@ -51,37 +122,176 @@ public class FrontController extends HttpServlet {
     }
 
     /**
-     * リクエストパラメータの値から該当するActionクラスのインスタンスを作成し、返却する
-     * (例:パラメータが action=Employee の場合、actions.EmployeeActionオブジェクト)
+     * 非同期で実行するaction/commandの場合、完了までの制限時間を取得する
+     * @param request リクエスト
+     * @return 制限時間(ミリ秒) 同期で実行する場合null
+     */
+    private Integer getAsyncTimeout(HttpServletRequest request) {
+        if (executor == null
+                || request.getDispatcherType() != DispatcherType.REQUEST
+                || !request.isAsyncSupported()) {
+            return null;
+        }
+
+        return executor.getTimeout(
+                request.getParameter(ForwardConst.ACT.getValue()),
+                request.getParameter(ForwardConst.CMD.getValue()));
+    }
+
+    /**
+     * Actionクラスの処理を別のスレッドで実行し、完了した時点でレスポンスを返す
+     * 制限時間(実行待ちの時間を含む)を過ぎても書き込みを開始していない場合は、その時点で503を返す
+     * (処理中のスレッドはDeadlineResponseにより以降の書き込みを拒否され、クエリは残りの時間でタイムアウトする
+     * 処理中のスレッドがリクエストを参照し終えるまで、非同期処理は完了させない)
+     * @param action Actionクラスのインスタンス
+     * @param commands commandの値と、該当するメソッドの対応表
      * @param request リクエスト
      * @param response レスポンス
-     * @return
+     * @param timeout 完了までの制限時間(ミリ秒)
+     * @throws IOException
      */
-    @SuppressWarnings({ "rawtypes", "unchecked" }) //コンパイラ警告を抑制
-    private ActionBase getAction(HttpServletRequest request, HttpServletResponse response) {
-        Class type = null;
-        ActionBase action = null;
+    private void processAsync(ActionBase action, Map<String, MethodHandle> commands,
+            HttpServletRequest request, HttpServletResponse response, int timeout)
+            throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        RequestStats stats = MetricsUtil.current();
+
+        DeadlineResponse guarded = new DeadlineResponse(response);
+        action.init(getServletContext(), request, guarded, commands);
+
+        AsyncContext ctx = request.startAsync(request, guarded);
+        ctx.setTimeout(timeout);
+        ctx.addListener(new AsyncListener() {
+            public void onTimeout(AsyncEvent event) throws IOException {
+                DeadlineResponse.State state = guarded.timeOut();
+                if (state == DeadlineResponse.State.QUEUED) {
+                    //実行待ちの場合は処理させずに、時間をおいて再度リクエストしてもらう
+                    sendServiceUnavailable(response);
+                    ctx.complete();
+                    return;
+                }
+                if (state == DeadlineResponse.State.RUNNING) {
+                    //処理中の場合は、処理の終了を待たずにブラウザに503を送信する
+                    writeServiceUnavailable(response);
+                }
+                //処理中のスレッドが非同期処理を完了するまで待つ(完了後はリクエスト・レスポンスが再利用されるため)
+                try {
+                    guarded.awaitFinish();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            public void onComplete(AsyncEvent event) {
+            }
+
+            public void onError(AsyncEvent event) {
+            }
+
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
         try {
+            executor.execute(() -> {
+                if (!guarded.start()) {
+                    //実行待ちの間に503を返して完了済みの場合は、リクエスト・レスポンスを参照しない
+                    return;
+                }
+                MetricsUtil.attach(stats);
+                try {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        //実行待ちの間に制限時間を過ぎた場合は処理しない
+                        if (guarded.tryClaim()) {
+                            sendServiceUnavailable(guarded);
+                        }
+                        return;
+                    }
 
-            //リクエストからパラメータ"action"の値を取得 (例:"Employee"、"Report")
-            String actionString = request.getParameter(ForwardConst.ACT.getValue());
+                    action.setQueryTimeout((int) remaining);
+                    action.process();
+                } catch (Exception e) {
+                    if (guarded.tryClaim()) {
+                        e.printStackTrace();
+                        sendServerError(guarded);
+                    }
+                } finally {
+                    //リクエスト内で共有したEntityManagerを必ずクローズする
+                    try {
+                        action.closeEntityManager();
+                    } finally {
+                        MetricsUtil.detach();
+                        ctx.complete();
+                        guarded.finish();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //実行中・実行待ちの件数が上限に達している場合は、時間をおいて再度リクエストしてもらう
+            sendServiceUnavailable(response);
+            ctx.complete();
+        }
+    }
 
-            //該当するActionオブジェクトを作成 (例:リクエストからパラメータ action=Employee の場合、actions.EmployeeActionオブジェクト)
-            type = Class.forName(String.format("actions.%sAction", actionString));
+    /**
+     * 混み合っているため処理できないことを示すレスポンスを返す
+     */
+    private static void sendServiceUnavailable(HttpServletResponse response) throws IOException {
+        response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
 
-            //ActionBaseのオブジェクトにキャスト(例:actions.EmployeeActionオブジェクト→actions.ActionBaseオブジェクト)
-            action = (ActionBase) (type.asSubclass(ActionBase.class)
-                    .getDeclaredConstructor()
-                    .newInstance());
+    /**
+     * 混み合っているため処理できないことを示すレスポンスを、非同期処理の完了を待たずにブラウザに送信する
+     * (フィルタのラッパーを経由せずに、内容の長さを指定して送信する)
+     */
+    private static void writeServiceUnavailable(HttpServletResponse response) throws IOException {
+        ServletResponse raw = response;
+        while (raw instanceof ServletResponseWrapper) {
+            raw = ((ServletResponseWrapper) raw).getResponse();
+        }
+        HttpServletResponse http = (HttpServletResponse) raw;
 
-        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | SecurityException
-                | IllegalArgumentException | InvocationTargetException| NoSuchMethodException e) {
+        byte[] body = "503 Service Unavailable".getBytes(StandardCharsets.UTF_8);
+        http.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        http.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+        http.setContentType("text/plain; charset=UTF-8");
+        http.setContentLength(body.length);
+        http.getOutputStream().write(body);
+        http.flushBuffer();
+    }
 
+    /**
+     * 処理中に例外が発生したことを示すレスポンスを返す(レスポンスの送信を開始している場合は何もしない)
+     */
+    private static void sendServerError(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        try {
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * リクエストパラメータの値に該当するActionRouteから、Actionクラスのインスタンスを作成し、返却する
+     * (例:パラメータが action=Employee の場合、actions.EmployeeActionオブジェクト)
+     * @param route リクエストパラメータ"action"の値に該当するActionRoute
+     * @return
+     */
+    private ActionBase getAction(ActionRoute route) {
+
+        if (route == null) {
             //リクエストパラメータに設定されている"action"の値が不正の場合(例:action=xxxxx 等、該当するActionクラスがない場合)
             //エラー処理を行うActionオブジェクトを作成
-            action = new UnknownAction();
+            return new UnknownAction();
         }
-        return action;
+
+        //該当するActionオブジェクトを作成 (例:リクエストからパラメータ action=Employee の場合、actions.EmployeeActionオブジェクト)
+        return route.newAction();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package filters;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import constants.PropertyConst;
+import utils.PropertyUtil;
+
+/**
+ * ブラウザが対応している場合(Accept-Encoding)に、レスポンスをgzipまたはdeflateで圧縮するFilter
+ * 一定サイズ未満のレスポンスと、画像等の圧縮済みの形式のレスポンスは圧縮しない
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class CompressionFilter implements Filter {
+
+    /**
+     * 圧縮するレスポンスの最小サイズ(バイト)のデフォルト値
+     */
+    private static final int DEFAULT_MIN_SIZE = 1024;
+
+    /**
+     * 圧縮レベル(1:速度優先～9:圧縮率優先)のデフォルト値
+     */
+    private static final int DEFAULT_LEVEL = 6;
+
+    /**
+     * 圧縮するContent-Typeのデフォルト値(画像等の圧縮済みの形式は含めない)
+     */
+    private static final String DEFAULT_MIME_TYPES = "text/html,text/css,text/plain,text/xml,text/javascript,"
+            + "application/javascript,application/json,application/xml,image/svg+xml";
+
+    private int minSize;
+    private int level;
+    private Set<String> mimeTypes;
+
+    /**
+     * Default constructor.
+     */
+    public CompressionFilter() {
+    }
+
+    /**
+     * @see Filter#destroy()
+     */
+    public void destroy() {
+    }
+
+    /**
+     * @see Filter#doFilter(ServletRequest, ServletResponse, FilterChain)
+     */
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest req = (HttpServletRequest) request;
+        HttpServletResponse res = (HttpServletResponse) response;
+
+        //ブラウザの対応状況によって内容が変わることを、キャッシュに通知する
+        res.addHeader("Vary", "Accept-Encoding");
+
+        String encoding = negotiate(req.getHeader("Accept-Encoding"));
+        if (encoding == null || "HEAD".equals(req.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(res, encoding, minSize, level, mimeTypes);
+        chain.doFilter(request, wrapper);
+
+        if (request.isAsyncStarted()) {
+            //非同期で処理する場合は、処理が完了した時点で圧縮を終了する
+            //(通常は画面の表示(forward)の終了時に終了している)
+            request.getAsyncContext().addListener(new AsyncListener() {
+                public void onComplete(AsyncEvent event) throws IOException {
+                    wrapper.finish();
+                }
+
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                public void onError(AsyncEvent event) {
+                }
+
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            wrapper.finish();
+        }
+    }
+
+    /**
+     * @see Filter#init(FilterConfig)
+     */
+    public void init(FilterConfig fConfig) throws ServletException {
+        minSize = Math.max(PropertyUtil.getInt(PropertyConst.COMPRESSION_MIN_SIZE, DEFAULT_MIN_SIZE), 0);
+        level = Math.min(Math.max(PropertyUtil.getInt(PropertyConst.COMPRESSION_LEVEL, DEFAULT_LEVEL),
+                Deflater.BEST_SPEED), Deflater.BEST_COMPRESSION);
+
+        mimeTypes = new HashSet<>();
+        for (String type : PropertyUtil.getString(PropertyConst.COMPRESSION_MIME_TYPES, DEFAULT_MIME_TYPES).split(",")) {
+            if (!type.trim().isEmpty()) {
+                mimeTypes.add(type.trim().toLowerCase());
+            }
+        }
+    }
+
+    /**
+     * Accept-Encodingから使用する圧縮形式を決定する(優先度(q)が同じ場合はgzipを優先する)
+     * @param acceptEncoding Accept-Encodingの値
+     * @return gzip、deflateのいずれか 圧縮しない場合null
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+
+        String selected = null;
+        double selectedQ = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase();
+            double q = 1;
+            for (String param : Arrays.copyOfRange(params, 1, params.length)) {
+                param = param.trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+
+            if (coding.equals("*")) {
+                coding = CompressionResponseWrapper.GZIP;
+            }
+            if (!coding.equals(CompressionResponseWrapper.GZIP) && !coding.equals(CompressionResponseWrapper.DEFLATE)) {
+                continue;
+            }
+            if (q > selectedQ || (q == selectedQ && q > 0 && coding.equals(CompressionResponseWrapper.GZIP))) {
+                selected = coding;
+                selectedQ = q;
+            }
+        }
+
+        return selectedQ > 0 ? selected : null;
+    }
+
+}
@@ -0,0 +1,334 @@
+package filters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * 出力を圧縮するレスポンス
+ * 最小サイズに達するまでは出力を保持し、達した時点(またはflush時)で圧縮するかどうかを決定する
+ * 以降は一定サイズごとに圧縮してブラウザに送信する(ページ全体を保持しない)
+ */
+class CompressionResponseWrapper extends HttpServletResponseWrapper {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    /**
+     * 圧縮したデータをブラウザに送信する単位(バイト)
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * 圧縮するレスポンス
+     * (forward・include中はgetResponse()がディスパッチャのラッパーに置き換わり、ヘッダを設定できないため直接参照する)
+     */
+    private final HttpServletResponse original;
+
+    private final String encoding;
+    private final int minSize;
+    private final int level;
+    private final Set<String> mimeTypes;
+
+    /**
+     * Servletから設定されたContent-Length(圧縮しない場合のみ設定する) 未設定の場合-1
+     */
+    private long contentLength = -1;
+
+    private CompressionOutputStream stream;
+    private PrintWriter writer;
+
+    CompressionResponseWrapper(HttpServletResponse response, String encoding, int minSize, int level,
+            Set<String> mimeTypes) {
+        super(response);
+        this.original = response;
+        this.encoding = encoding;
+        this.minSize = minSize;
+        this.level = level;
+        this.mimeTypes = mimeTypes;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (stream == null) {
+            stream = new CompressionOutputStream();
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            stream = new CompressionOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        contentLength = len;
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        contentLength = len;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            contentLength = value == null ? -1 : Long.parseLong(value);
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            contentLength = Long.parseLong(value);
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else if (stream != null) {
+            stream.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (stream != null) {
+            stream.resetBuffer();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        contentLength = -1;
+        if (stream != null) {
+            stream.resetBuffer();
+        }
+    }
+
+    /**
+     * 出力を終了する(保持している出力の送信と、圧縮の終了を行う)
+     * @throws IOException
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.close();
+        } else if (stream != null) {
+            stream.close();
+        } else if (contentLength >= 0) {
+            original.setContentLengthLong(contentLength);
+        }
+    }
+
+    /**
+     * レスポンスの内容から圧縮するかどうかを判定する
+     * @return true: 圧縮する false: 圧縮しない
+     */
+    private boolean isCompressible() {
+        int status = original.getStatus();
+        if (status < 200 || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED) {
+            return false;
+        }
+        if (original.getHeader("Content-Encoding") != null) {
+            //既に圧縮されている場合
+            return false;
+        }
+        if (contentLength >= 0 && contentLength < minSize) {
+            return false;
+        }
+
+        String contentType = original.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        int semicolon = contentType.indexOf(';');
+        String mimeType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim().toLowerCase();
+        return mimeTypes.contains(mimeType);
+    }
+
+    /**
+     * 最小サイズに達するまで出力を保持し、以降は圧縮して(または圧縮せずに)送信する出力ストリーム
+     */
+    private class CompressionOutputStream extends ServletOutputStream {
+
+        /**
+         * 圧縮するかどうかを決定するまで出力を保持するバッファ
+         */
+        private final byte[] buffer = new byte[Math.max(minSize, 1)];
+        private int count;
+
+        /**
+         * 圧縮するかどうかを決定した後の送信先(決定前はnull)
+         */
+        private OutputStream out;
+
+        private boolean closed;
+
+        /**
+         * ノンブロッキングIOで送信する場合の元の出力ストリーム(ブロッキングIOの場合はnull)
+         */
+        private ServletOutputStream nonBlocking;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (out == null && count < minSize) {
+                buffer[count++] = (byte) b;
+                return;
+            }
+            if (out == null) {
+                start(true);
+            }
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out == null && count + len <= minSize) {
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+                return;
+            }
+            if (out == null) {
+                start(true);
+            }
+            out.write(b, off, len);
+        }
+
+        /**
+         * 保持している出力を送信する
+         * 最小サイズに達する前でもflushされた場合は、以降も出力が続くものとして圧縮を開始する
+         */
+        @Override
+        public void flush() throws IOException {
+            if (closed) {
+                return;
+            }
+            if (out == null) {
+                start(true);
+            }
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            if (out == null) {
+                start(count >= minSize);
+            }
+            closed = true;
+            out.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return nonBlocking == null || nonBlocking.isReady();
+        }
+
+        /**
+         * ノンブロッキングIOに切り替える
+         * 圧縮するかどうかを決定していない場合は圧縮せずに送信することとし、送信可能かどうかの通知は元の出力ストリームに任せる
+         */
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                if (out == null) {
+                    start(false);
+                }
+                nonBlocking = original.getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            nonBlocking.setWriteListener(writeListener);
+        }
+
+        /**
+         * 圧縮するかどうかを決定していない場合のみ、保持している出力を破棄する
+         */
+        private void resetBuffer() {
+            if (out == null) {
+                count = 0;
+            }
+        }
+
+        /**
+         * 圧縮するかどうかを決定し、保持している出力を送信する
+         * @param largeEnough 最小サイズ以上の出力があるかどうか
+         * @throws IOException
+         */
+        private void start(boolean largeEnough) throws IOException {
+            OutputStream raw = original.getOutputStream();
+
+            if (largeEnough && isCompressible()) {
+                original.setHeader("Content-Encoding", encoding);
+
+                //圧縮により内容が変わるため、ETagを弱い検証子にする
+                String etag = original.getHeader("ETag");
+                if (etag != null && !etag.startsWith("W/")) {
+                    original.setHeader("ETag", "W/" + etag);
+                }
+
+                //flush時に圧縮済みの分を送信できるよう、SYNC_FLUSHを有効にする
+                if (GZIP.equals(encoding)) {
+                    out = new GZIPOutputStream(raw, BUFFER_SIZE, true) {
+                        {
+                            def.setLevel(level);
+                        }
+                    };
+                } else {
+                    out = new DeflaterOutputStream(raw, new Deflater(level), BUFFER_SIZE, true) {
+                        @Override
+                        public void close() throws IOException {
+                            //指定したDeflaterはcloseで解放されないため、ネイティブメモリを明示的に解放する
+                            try {
+                                super.close();
+                            } finally {
+                                def.end();
+                            }
+                        }
+                    };
+                }
+            } else {
+                if (contentLength >= 0) {
+                    original.setContentLengthLong(contentLength);
+                }
+                out = raw;
+            }
+
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
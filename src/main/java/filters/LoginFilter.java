@@ -1,6 +1,9 @@
 package filters;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -14,16 +17,65 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
-import actions.views.EmployeeView;
 import constants.AttributeConst;
 import constants.ForwardConst;
 
 /**
  * Servlet Filter implementation class LoginFilter
+ * 未ログインのリクエストではセッションを生成しない(ボットやヘルスチェックのアクセスでセッションが増えないようにする)
  */
-@WebFilter("/*")
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
 public class LoginFilter implements Filter {
 
+    /**
+     * actionとcommandの組み合わせごとのアクセス制御
+     */
+    private enum Access {
+        //ログイン済のみ許可
+        LOGGED_IN,
+        //未ログインのみ許可(ログイン済の場合はトップ画面にリダイレクト)
+        LOGIN_PAGE,
+        //未ログインのみ許可(ログイン済の場合はエラー画面)
+        ANONYMOUS,
+        //許可しない(未ログインの場合はログイン画面にリダイレクト、ログイン済の場合はエラー画面)
+        DENIED
+    }
+
+    /**
+     * 認証処理から除外するフォルダ(CSSフォルダ、ビルド時に生成した静的ファイルのフォルダ)
+     */
+    private static final String[] PUBLIC_PATHS = { "/css/", "/assets/" };
+
+    /**
+     * action、commandごとのアクセス制御
+     * 表に無いactionはログイン済のみ許可、表にあるactionのうち表に無いcommandは許可しない
+     */
+    private static final Map<String, Map<String, Access>> RULES;
+
+    static {
+        Map<String, Access> auth = new HashMap<>();
+        auth.put(ForwardConst.CMD_SHOW_LOGIN.getValue(), Access.LOGIN_PAGE);
+        auth.put(ForwardConst.CMD_LOGIN.getValue(), Access.ANONYMOUS);
+        auth.put(ForwardConst.CMD_LOGOUT.getValue(), Access.LOGGED_IN);
+
+        Map<String, Map<String, Access>> rules = new HashMap<>();
+        rules.put(ForwardConst.ACT_AUTH.getValue(), Collections.unmodifiableMap(auth));
+        RULES = Collections.unmodifiableMap(rules);
+    }
+
+    /**
+     * ログイン画面、トップ画面のURL(コンテキストパスより後の部分)
+     */
+    private static final String LOGIN_URL = "?action=" + ForwardConst.ACT_AUTH.getValue()
+            + "&command=" + ForwardConst.CMD_SHOW_LOGIN.getValue();
+    private static final String TOP_URL = "?action=" + ForwardConst.ACT_TOP.getValue()
+            + "&command=" + ForwardConst.CMD_INDEX.getValue();
+
+    /**
+     * エラー画面のJSP
+     */
+    private static final String ERROR_VIEW = String.format("/WEB-INF/views/%s.jsp", "error/unknown");
+
     /**
      * Default constructor.
      */
@@ -41,76 +93,84 @@ public class LoginFilter implements Filter {
      */
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
-        String contextPath = ((HttpServletRequest) request).getContextPath();
-        String servletPath = ((HttpServletRequest) request).getServletPath();
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
 
-        if (servletPath.matches("/css.*")) {
-            // CSSフォルダ内は認証処理から除外する
+        if (isPublicPath(httpRequest.getServletPath())) {
+            // CSSフォルダ、ビルド時に生成した静的ファイルのフォルダ内は認証処理から除外する
             chain.doFilter(request, response);
+            return;
+        }
 
-        } else {
-            HttpSession session = ((HttpServletRequest) request).getSession();
-
-            //クエリパラメータからactionとcommandを取得
-            String action = request.getParameter(ForwardConst.ACT.getValue());
-            String command = request.getParameter(ForwardConst.CMD.getValue());
-
-            //セッションからログインしている従業員の情報を取得
-            EmployeeView ev = (EmployeeView) session.getAttribute(AttributeConst.LOGIN_EMP.getValue());
-
-            if (ev == null) {
-                //未ログイン
-
-                if (!(ForwardConst.ACT_AUTH.getValue().equals(action)
-                        && (ForwardConst.CMD_SHOW_LOGIN.getValue().equals(command)
-                                || ForwardConst.CMD_LOGIN.getValue().equals(command)))) {
-
-                    //ログインページの表示またはログイン実行以外はログインページにリダイレクト
-                    ((HttpServletResponse) response).sendRedirect(
-                            contextPath
-                                    + "?action=" + ForwardConst.ACT_AUTH.getValue()
-                                    + "&command=" + ForwardConst.CMD_SHOW_LOGIN.getValue());
-                    return;
-                }
-            } else {
-                //ログイン済
-
-                if (ForwardConst.ACT_AUTH.getValue().equals(action)) {
-                    //認証系Actionを行おうとしている場合
+        //クエリパラメータからactionとcommandを取得
+        Access access = getAccess(request.getParameter(ForwardConst.ACT.getValue()),
+                request.getParameter(ForwardConst.CMD.getValue()));
 
-                    if (ForwardConst.CMD_SHOW_LOGIN.getValue().equals(command)) {
-                        //ログインページの表示はトップ画面にリダイレクト
-                        ((HttpServletResponse) response).sendRedirect(
-                                contextPath
-                                        + "?action=" + ForwardConst.ACT_TOP.getValue()
-                                        + "&command=" + ForwardConst.CMD_INDEX.getValue());
-                        return;
+        //セッションからログインしている従業員の情報を取得(セッションが無ければ未ログイン)
+        HttpSession session = httpRequest.getSession(false);
+        boolean loggedIn = session != null && session.getAttribute(AttributeConst.LOGIN_EMP.getValue()) != null;
 
-                    } else if (ForwardConst.CMD_LOGOUT.getValue().equals(command)) {
-                        //ログアウトの実施は許可
+        if (!loggedIn) {
+            //未ログイン
 
-                    } else {
-                        //上記以外の認証系Actionはエラー画面
+            if (access != Access.LOGIN_PAGE && access != Access.ANONYMOUS) {
+                //ログインページの表示またはログイン実行以外はログインページにリダイレクト
+                ((HttpServletResponse) response).sendRedirect(httpRequest.getContextPath() + LOGIN_URL);
+                return;
+            }
+        } else {
+            //ログイン済
+
+            if (access == Access.LOGIN_PAGE) {
+                //ログインページの表示はトップ画面にリダイレクト
+                ((HttpServletResponse) response).sendRedirect(httpRequest.getContextPath() + TOP_URL);
+                return;
+
+            } else if (access != Access.LOGGED_IN) {
+                //ログアウト以外の認証系Actionはエラー画面
+                RequestDispatcher dispatcher = request.getRequestDispatcher(ERROR_VIEW);
+                dispatcher.forward(request, response);
+                return;
+            }
+        }
 
-                        String forward = String.format("/WEB-INF/views/%s.jsp", "error/unknown");
-                        RequestDispatcher dispatcher = request.getRequestDispatcher(forward);
-                        dispatcher.forward(request, response);
+        //次のフィルタまたはサーブレットを呼び出し
+        chain.doFilter(request, response);
+    }
 
-                        return;
+    /**
+     * @see Filter#init(FilterConfig)
+     */
+    public void init(FilterConfig fConfig) throws ServletException {
+    }
 
-                    }
-                }
+    /**
+     * 認証処理から除外するパスかどうかを判定する
+     * @param servletPath サーブレットパス
+     * @return 除外する場合はtrue
+     */
+    private static boolean isPublicPath(String servletPath) {
+        for (String path : PUBLIC_PATHS) {
+            if (servletPath.startsWith(path)) {
+                return true;
             }
-
-            //次のフィルタまたはサーブレットを呼び出し
-            chain.doFilter(request, response);
         }
+        return false;
     }
 
     /**
-     * @see Filter#init(FilterConfig)
+     * actionとcommandの組み合わせに対するアクセス制御を取得する
+     * @param action action(未指定の場合はnull)
+     * @param command command(未指定の場合はnull)
+     * @return アクセス制御
      */
-    public void init(FilterConfig fConfig) throws ServletException {
+    private static Access getAccess(String action, String command) {
+        Map<String, Access> commands = action == null ? null : RULES.get(action);
+        if (commands == null) {
+            return Access.LOGGED_IN;
+        }
+
+        Access access = command == null ? null : commands.get(command);
+        return access == null ? Access.DENIED : access;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package filters;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+
+import constants.ForwardConst;
+import utils.MetricsUtil;
+import utils.MetricsUtil.RequestStats;
+
+/**
+ * リクエストの処理時間とリクエスト内で実行したSQLの回数・時間を、actionとcommandごとに集計するFilter
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class MetricsFilter implements Filter {
+
+    /**
+     * 存在しないactionまたはcommandを指定された場合の集計上の名前
+     */
+    private static final String UNKNOWN = "unknown";
+
+    /**
+     * 集計対象から除外するフォルダ(CSSフォルダ、ビルド時に生成した静的ファイルのフォルダ)
+     */
+    private static final String[] EXCLUDED_PATHS = { "/css/", "/assets/" };
+
+    /**
+     * 集計対象のactionとcommandの値(不正な値ごとに集計値が増えないよう、定義済みの値のみ集計する)
+     */
+    private final Set<String> actions = new HashSet<>();
+    private final Set<String> commands = new HashSet<>();
+
+    /**
+     * Default constructor.
+     */
+    public MetricsFilter() {
+    }
+
+    /**
+     * @see Filter#destroy()
+     */
+    public void destroy() {
+    }
+
+    /**
+     * @see Filter#doFilter(ServletRequest, ServletResponse, FilterChain)
+     */
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        String servletPath = ((HttpServletRequest) request).getServletPath();
+
+        if (isExcludedPath(servletPath)) {
+            // CSSフォルダ、ビルド時に生成した静的ファイルのフォルダ内は集計対象から除外する
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        RequestStats stats = MetricsUtil.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MetricsUtil.detach();
+        }
+
+        //先にパラメータを読み込むと、EncodingFilterで文字コードを設定する前にPOSTの本文を解析してしまうため、処理の完了後に取得する
+        String action = label(actions, request.getParameter(ForwardConst.ACT.getValue()));
+        String command = label(commands, request.getParameter(ForwardConst.CMD.getValue()));
+
+        if (request.isAsyncStarted()) {
+            //非同期で処理する場合は、処理が完了した時点で集計する
+            request.getAsyncContext().addListener(new AsyncListener() {
+                public void onComplete(AsyncEvent event) {
+                    MetricsUtil.endRequest(stats, action, command, System.nanoTime() - start);
+                }
+
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                public void onError(AsyncEvent event) {
+                }
+
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            MetricsUtil.endRequest(stats, action, command, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @see Filter#init(FilterConfig)
+     */
+    public void init(FilterConfig fConfig) throws ServletException {
+        for (ForwardConst fc : ForwardConst.values()) {
+            if (fc.name().startsWith("ACT_")) {
+                actions.add(fc.getValue());
+            } else if (fc.name().startsWith("CMD_")) {
+                commands.add(fc.getValue());
+            }
+        }
+    }
+
+    /**
+     * 集計対象から除外するパスかどうかを判定する
+     * @param servletPath サーブレットパス
+     * @return 除外する場合はtrue
+     */
+    private static boolean isExcludedPath(String servletPath) {
+        for (String path : EXCLUDED_PATHS) {
+            if (servletPath.startsWith(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * パラメータの値を集計上の名前に変換する(未指定の場合は空文字、定義されていない値の場合はunknown)
+     */
+    private static String label(Set<String> values, String value) {
+        if (value == null) {
+            return "";
+        }
+        return values.contains(value) ? value : UNKNOWN;
+    }
+
+}
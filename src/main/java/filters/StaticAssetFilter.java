@@ -0,0 +1,64 @@
+package filters;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * ビルド時に連結・圧縮したファイル(assets/、ファイル名に内容のハッシュ値を含む)を無期限にキャッシュさせるFilter
+ * 内容が変わるとファイル名が変わるため、ブラウザは再検証せずにキャッシュを使用できる
+ */
+@WebFilter(urlPatterns = "/assets/*", asyncSupported = true)
+public class StaticAssetFilter implements Filter {
+
+    /**
+     * キャッシュの有効期間(1年)
+     */
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private ServletContext context;
+
+    /**
+     * Default constructor.
+     */
+    public StaticAssetFilter() {
+    }
+
+    /**
+     * @see Filter#destroy()
+     */
+    public void destroy() {
+    }
+
+    /**
+     * @see Filter#doFilter(ServletRequest, ServletResponse, FilterChain)
+     */
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        String servletPath = ((HttpServletRequest) request).getServletPath();
+
+        //存在しないファイル(404)はキャッシュさせない
+        if (context.getResource(servletPath) != null) {
+            ((HttpServletResponse) response).setHeader("Cache-Control", CACHE_CONTROL);
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * @see Filter#init(FilterConfig)
+     */
+    public void init(FilterConfig fConfig) throws ServletException {
+        context = fConfig.getServletContext();
+    }
+
+}
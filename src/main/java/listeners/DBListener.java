@@ -0,0 +1,82 @@
+package listeners;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import constants.PropertyConst;
+import services.CounterService;
+import utils.DBUtil;
+import utils.PropertyUtil;
+
+@WebListener
+public class DBListener implements ServletContextListener {
+
+    /**
+     * 集計値の再計算間隔(分)のデフォルト値
+     */
+    private static final int DEFAULT_RECONCILE_INTERVAL = 60;
+
+    /**
+     * 集計値の再計算を定期実行するスケジューラ
+     */
+    private ScheduledExecutorService scheduler;
+
+    public DBListener() {
+    }
+
+    /**
+     * Webアプリケーションのシャットダウン時に実行する処理
+     * 定期処理を停止した後、EntityManagerFactoryを破棄し、コネクションプールを閉じる
+     */
+    public void contextDestroyed(ServletContextEvent arg0) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        DBUtil.close();
+    }
+
+    /**
+     * Webアプリケーションの起動時に実行する処理
+     * 最初のリクエストを待たずにEntityManagerFactoryとコネクションプールを生成し、
+     * 集計値の再計算を起動時および一定間隔で実行する
+     */
+    public void contextInitialized(ServletContextEvent arg0) {
+        DBUtil.init();
+
+        int interval = PropertyUtil.getInt(PropertyConst.COUNTER_RECONCILE_INTERVAL, DEFAULT_RECONCILE_INTERVAL);
+        if (interval > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "counter-reconciler");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(DBListener::reconcileCounters, 0, interval, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * 集計値を再計算する(例外が発生しても定期実行を継続する)
+     */
+    private static void reconcileCounters() {
+        CounterService service = new CounterService();
+        try {
+            service.reconcile();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            service.close();
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package listeners;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+import constants.PropertyConst;
+import utils.PasswordUtil;
+import utils.PropertyUtil;
+
+@WebListener
+public class PasswordHashListener implements ServletContextListener {
+
+    /**
+     * ハッシュ化の実行待ち件数の上限のデフォルト値
+     */
+    private static final int DEFAULT_QUEUE_SIZE = 64;
+
+    /**
+     * ハッシュ化の完了を待つ時間(ミリ秒)のデフォルト値
+     */
+    private static final int DEFAULT_TIMEOUT = 10000;
+
+    public PasswordHashListener() {
+    }
+
+    /**
+     * Webアプリケーションのシャットダウン時に実行する処理
+     * パスワードのハッシュ化を行うスレッドプールを停止する
+     */
+    public void contextDestroyed(ServletContextEvent arg0) {
+        PasswordUtil.shutdown();
+    }
+
+    /**
+     * Webアプリケーションの起動時に実行する処理
+     * パスワードのハッシュ化を行うスレッドプールを生成する(スレッド数のデフォルトはCPUコア数)
+     */
+    public void contextInitialized(ServletContextEvent arg0) {
+        int threads = PropertyUtil.getInt(PropertyConst.PASSWORD_HASH_THREADS, Runtime.getRuntime().availableProcessors());
+        int queueSize = PropertyUtil.getInt(PropertyConst.PASSWORD_HASH_QUEUE_SIZE, DEFAULT_QUEUE_SIZE);
+        int timeout = PropertyUtil.getInt(PropertyConst.PASSWORD_HASH_TIMEOUT, DEFAULT_TIMEOUT);
+
+        PasswordUtil.start(Math.max(threads, 1), Math.max(queueSize, 1), timeout);
+    }
+
+}
@@ -30,8 +30,22 @@ public class PropertiesListener implements ServletContextListener {
         ServletContext context = arg0.getServletContext();
 
         //プロパティファイルを読み込み、アプリケーションスコープに設定する
+        loadProperties(context, "application.properties");
+
+        //ビルド時に生成した静的ファイルのパス(IDEから直接起動した場合等、存在しなければ読み込まない)
+        if (PropertiesListener.class.getClassLoader().getResource("assets.properties") != null) {
+            loadProperties(context, "assets.properties");
+        }
+    }
+
+    /**
+     * クラスパス上のプロパティファイルを読み込み、アプリケーションスコープに設定する
+     * @param context ServletContext
+     * @param name プロパティファイル名
+     */
+    private void loadProperties(ServletContext context, String name) {
         try {
-            InputStream is = PropertiesListener.class.getClassLoader().getResourceAsStream("application.properties");
+            InputStream is = PropertiesListener.class.getClassLoader().getResourceAsStream(name);
 
             Properties properties = new Properties();
             properties.load(is);
@@ -0,0 +1,78 @@
+package models;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.NamedNativeQuery;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import constants.JpaConst;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 集計値データのDTOモデル
+ * 一覧画面の件数表示のため、日報・従業員の件数をCOUNT(*)を使わずに保持する
+ *
+ */
+@Table(name = JpaConst.TABLE_COUNTER, uniqueConstraints = {
+        @UniqueConstraint(columnNames = { JpaConst.COUNTER_COL_NAME, JpaConst.COUNTER_COL_TARGET })
+})
+@NamedQueries({
+        @NamedQuery(name = JpaConst.Q_COUNTER_GET, query = JpaConst.Q_COUNTER_GET_DEF),
+        @NamedQuery(name = JpaConst.Q_COUNTER_ADD, query = JpaConst.Q_COUNTER_ADD_DEF),
+        @NamedQuery(name = JpaConst.Q_COUNTER_RECOUNT_REP_ALL, query = JpaConst.Q_COUNTER_RECOUNT_REP_ALL_DEF),
+        @NamedQuery(name = JpaConst.Q_COUNTER_RECOUNT_EMP_ALL, query = JpaConst.Q_COUNTER_RECOUNT_EMP_ALL_DEF),
+        @NamedQuery(name = JpaConst.Q_COUNTER_RECOUNT_REP_MINE, query = JpaConst.Q_COUNTER_RECOUNT_REP_MINE_DEF)
+})
+@NamedNativeQuery(name = JpaConst.Q_COUNTER_UPSERT, query = JpaConst.Q_COUNTER_UPSERT_DEF)
+
+@Getter //全てのクラスフィールドについてgetterを自動生成する(Lombok)
+@Setter //全てのクラスフィールドについてsetterを自動生成する(Lombok)
+@NoArgsConstructor //引数なしコンストラクタを自動生成する(Lombok)
+@AllArgsConstructor //全てのクラスフィールドを引数にもつ引数ありコンストラクタを自動生成する(Lombok)
+@Entity
+public class Counter {
+
+    /**
+     * id
+     */
+    @Id
+    @Column(name = JpaConst.COUNTER_COL_ID)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * 集計値の種類
+     */
+    @Column(name = JpaConst.COUNTER_COL_NAME, length = 64, nullable = false)
+    private String name;
+
+    /**
+     * 集計対象のid(全体の集計値は0)
+     */
+    @Column(name = JpaConst.COUNTER_COL_TARGET, nullable = false)
+    private Integer targetId;
+
+    /**
+     * 集計値
+     */
+    @Column(name = JpaConst.COUNTER_COL_VALUE, nullable = false)
+    private Long value;
+
+    /**
+     * 更新日時
+     */
+    @Column(name = JpaConst.COUNTER_COL_UPDATED_AT, nullable = false)
+    private LocalDateTime updatedAt;
+
+}
@@ -2,6 +2,7 @@ package models;
 
 import java.time.LocalDateTime;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -11,6 +12,9 @@ import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import constants.JpaConst;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -33,14 +37,16 @@ import lombok.Setter;
             name = JpaConst.Q_EMP_COUNT_RESISTERED_BY_CODE,
             query = JpaConst.Q_EMP_COUNT_RESISTERED_BY_CODE_DEF),
     @NamedQuery(
-            name = JpaConst.Q_EMP_GET_BY_CODE_AND_PASS,
-            query = JpaConst.Q_EMP_GET_BY_CODE_AND_PASS_DEF)
+            name = JpaConst.Q_EMP_GET_BY_CODE,
+            query = JpaConst.Q_EMP_GET_BY_CODE_DEF)
 })
 
 @Getter //全てのクラスフィールドについてgetterを自動生成する(Lombok)
 @Setter //全てのクラスフィールドについてsetterを自動生成する(Lombok)
 @NoArgsConstructor //引数なしコンストラクタを自動生成する(Lombok)
 @AllArgsConstructor //全てのクラスフィールドを引数にもつ引数ありコンストラクタを自動生成する(Lombok)
+@Cacheable //二次キャッシュの対象にする(更新が少なく、ほぼ全てのリクエストで参照されるため)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = JpaConst.CACHE_EMP) //更新時はトランザクションのコミットに合わせてキャッシュを更新する
 @Entity
 public class Employee {
 
@@ -67,7 +73,7 @@ public class Employee {
     /**
      * パスワード
      */
-    @Column(name = JpaConst.EMP_COL_PASS, length = 64, nullable = false)
+    @Column(name = JpaConst.EMP_COL_PASS, length = 255, nullable = false)
     private String password;
 
     /**
@@ -0,0 +1,67 @@
+package models;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import constants.JpaConst;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * タイムラインデータのDTOモデル
+ * フォローしている従業員の日報を、日報の登録時・フォロー時に従業員ごとに書き込んで保持する
+ *
+ */
+@Table(name = JpaConst.TABLE_FEED, uniqueConstraints = {
+        //タイムラインの表示で従業員id・日報idの範囲検索に使用する
+        @UniqueConstraint(columnNames = { JpaConst.FEED_COL_EMP, JpaConst.FEED_COL_REP })
+})
+@NamedQueries({
+        @NamedQuery(name = JpaConst.Q_FEED_FAN_OUT, query = JpaConst.Q_FEED_FAN_OUT_DEF),
+        @NamedQuery(name = JpaConst.Q_FEED_ADD_FOLLOWING, query = JpaConst.Q_FEED_ADD_FOLLOWING_DEF),
+        @NamedQuery(name = JpaConst.Q_FEED_REMOVE_FOLLOWING, query = JpaConst.Q_FEED_REMOVE_FOLLOWING_DEF),
+        @NamedQuery(name = JpaConst.Q_FEED_COUNT_ALL_MINE, query = JpaConst.Q_FEED_COUNT_ALL_MINE_DEF)
+})
+
+@Getter //全てのクラスフィールドについてgetterを自動生成する(Lombok)
+@Setter //全てのクラスフィールドについてsetterを自動生成する(Lombok)
+@NoArgsConstructor //引数なしコンストラクタを自動生成する(Lombok)
+@AllArgsConstructor //全てのクラスフィールドを引数にもつ引数ありコンストラクタを自動生成する(Lombok)
+@Entity
+public class Feed {
+
+    /**
+     * id
+     */
+    @Id
+    @Column(name = JpaConst.FEED_COL_ID)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * タイムラインを表示する従業員
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = JpaConst.FEED_COL_EMP, nullable = false)
+    private Employee employee;
+
+    /**
+     * タイムラインに表示する日報
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = JpaConst.FEED_COL_REP, nullable = false)
+    private Report report;
+
+}
@@ -7,6 +7,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
@@ -23,10 +24,15 @@ import lombok.Setter;
  * フォローデータのDTOモデル
  *
  */
-@Table(name = JpaConst.TABLE_FOLLOW)
+@Table(name = JpaConst.TABLE_FOLLOW, indexes = {
+        //フォロー済みかどうかの確認・フォロー解除で使用する
+        @Index(name = JpaConst.FOLLOW_IDX_EMPS, columnList = JpaConst.FOLLOW_COL_FOLLOWING_EMP + "," + JpaConst.FOLLOW_COL_FOLLOWED_EMP)
+})
 @NamedQueries({
         @NamedQuery(name = JpaConst.Q_FOLLOW_GET_ALL_MINE, query = JpaConst.Q_FOLLOW_GET_ALL_MINE_DEF),
         @NamedQuery(name = JpaConst.Q_FOLLOW_COUNT_ALL_MINE, query = JpaConst.Q_FOLLOW_COUNT_ALL_MINE_DEF),
+        @NamedQuery(name = JpaConst.Q_FOLLOW_COUNT_BY_EMPS, query = JpaConst.Q_FOLLOW_COUNT_BY_EMPS_DEF),
+        @NamedQuery(name = JpaConst.Q_FOLLOW_DELETE_BY_EMPS, query = JpaConst.Q_FOLLOW_DELETE_BY_EMPS_DEF),
 })
 
 @Getter //全てのクラスフィールドについてgetterを自動生成する(Lombok)
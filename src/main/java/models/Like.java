@@ -12,6 +12,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 import constants.JpaConst;
 import lombok.AllArgsConstructor;
@@ -23,10 +24,15 @@ import lombok.Setter;
  * いいねデータのDTOモデル
  *
  */
-@Table(name = JpaConst.TABLE_LIKE)
+@Table(name = JpaConst.TABLE_LIKE, uniqueConstraints = {
+        //同じ従業員が同じ日報に複数回いいねできないようにする
+        @UniqueConstraint(name = JpaConst.LIKE_UK_REP_EMP, columnNames = { JpaConst.LIKE_COL_REP, JpaConst.LIKE_COL_EMP })
+})
 @NamedQueries({
         @NamedQuery(name = JpaConst.Q_LIKE_GET_ALL_MINE, query = JpaConst.Q_LIKE_GET_ALL_MINE_DEF),
-        @NamedQuery(name = JpaConst.Q_LIKE_COUNT_ALL_MINE, query = JpaConst.Q_LIKE_COUNT_ALL_MINE_DEF)
+        @NamedQuery(name = JpaConst.Q_LIKE_COUNT_ALL_MINE, query = JpaConst.Q_LIKE_COUNT_ALL_MINE_DEF),
+        @NamedQuery(name = JpaConst.Q_LIKE_COUNT_MINE_BY_EMP, query = JpaConst.Q_LIKE_COUNT_MINE_BY_EMP_DEF),
+        @NamedQuery(name = JpaConst.Q_LIKE_DELETE_MINE, query = JpaConst.Q_LIKE_DELETE_MINE_DEF)
 })
 
 @Getter //全てのクラスフィールドについてgetterを自動生成する(Lombok)
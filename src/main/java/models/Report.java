@@ -28,11 +28,19 @@ import lombok.Setter;
 @Table(name = JpaConst.TABLE_REP)
 @NamedQueries({
         @NamedQuery(name = JpaConst.Q_REP_GET_ALL, query = JpaConst.Q_REP_GET_ALL_DEF),
+        @NamedQuery(name = JpaConst.Q_REP_GET_ALL_OLDER, query = JpaConst.Q_REP_GET_ALL_OLDER_DEF),
         @NamedQuery(name = JpaConst.Q_REP_COUNT, query = JpaConst.Q_REP_COUNT_DEF),
         @NamedQuery(name = JpaConst.Q_REP_GET_ALL_MINE, query = JpaConst.Q_REP_GET_ALL_MINE_DEF),
+        @NamedQuery(name = JpaConst.Q_REP_GET_ALL_MINE_OLDER, query = JpaConst.Q_REP_GET_ALL_MINE_OLDER_DEF),
         @NamedQuery(name = JpaConst.Q_REP_COUNT_ALL_MINE, query = JpaConst.Q_REP_COUNT_ALL_MINE_DEF),
+        @NamedQuery(name = JpaConst.Q_REP_GET_VERSION, query = JpaConst.Q_REP_GET_VERSION_DEF),
         @NamedQuery(name = JpaConst.Q_REP_GET_ALL_FOLLOWING, query = JpaConst.Q_REP_GET_ALL_FOLLOWING_DEF),
-        @NamedQuery(name = JpaConst.Q_REP_COUNT_ALL_FOLLOWING, query = JpaConst.Q_REP_COUNT_ALL_FOLLOWING_DEF),
+        @NamedQuery(name = JpaConst.Q_REP_GET_ALL_FOLLOWING_OLDER, query = JpaConst.Q_REP_GET_ALL_FOLLOWING_OLDER_DEF),
+        @NamedQuery(name = JpaConst.Q_REP_COUNT_GROUP_BY_EMP, query = JpaConst.Q_REP_COUNT_GROUP_BY_EMP_DEF),
+        @NamedQuery(name = JpaConst.Q_REP_RECONCILE_LIKE_COUNT, query = JpaConst.Q_REP_RECONCILE_LIKE_COUNT_DEF),
+        @NamedQuery(name = JpaConst.Q_REP_GET_MAX_ID, query = JpaConst.Q_REP_GET_MAX_ID_DEF),
+        @NamedQuery(name = JpaConst.Q_REP_GET_LIKE_COUNT, query = JpaConst.Q_REP_GET_LIKE_COUNT_DEF),
+        @NamedQuery(name = JpaConst.Q_REP_ADD_LIKE_COUNT, query = JpaConst.Q_REP_ADD_LIKE_COUNT_DEF),
 })
 
 @Getter //全てのクラスフィールドについてgetterを自動生成する(Lombok)
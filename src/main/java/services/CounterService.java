@@ -0,0 +1,208 @@
+package services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Query;
+
+import org.hibernate.query.NativeQuery;
+
+import constants.JpaConst;
+import models.Counter;
+import models.Employee;
+import utils.FragmentCache;
+
+/**
+ * 集計値テーブルの操作に関わる処理を行うクラス
+ * 日報・従業員の件数を登録時に加算して保持し、一覧画面ではCOUNT(*)の代わりに参照する
+ */
+public class CounterService extends ServiceBase {
+
+    /**
+     * コンストラクタ
+     */
+    public CounterService() {
+        super();
+    }
+
+    /**
+     * コンストラクタ
+     * @param em 1リクエスト内で共有するEntityManagerインスタンス
+     */
+    public CounterService(EntityManager em) {
+        super(em);
+    }
+
+    /**
+     * 指定した種類・対象の集計値を取得し、返却する
+     * 集計値が未登録の場合は元のテーブルから件数を数えて登録する(並行して登録された場合は登録済みの値を使用する)
+     * @param name 集計値の種類
+     * @param targetId 集計対象のid(全体の集計値は0)
+     * @return 集計値
+     */
+    public long get(String name, int targetId) {
+
+        List<Long> values = em.createNamedQuery(JpaConst.Q_COUNTER_GET, Long.class)
+                .setParameter(JpaConst.JPQL_PARM_NAME, name)
+                .setParameter(JpaConst.JPQL_PARM_TARGET, targetId)
+                .getResultList();
+
+        if (values.size() > 0) {
+            return values.get(0);
+        }
+
+        //未登録の場合は件数を数えて登録する
+        EntityTransaction tx = em.getTransaction();
+        boolean ownTransaction = !tx.isActive();
+        if (ownTransaction) {
+            tx.begin();
+        }
+        long value = countSource(name, targetId);
+        upsert(name, targetId, value, 0);
+        if (ownTransaction) {
+            tx.commit();
+        }
+
+        return value;
+    }
+
+    /**
+     * 指定した種類・対象の集計値に1を加算する
+     * 呼び出し元のトランザクション内で、元データの登録と同時に実行すること
+     * @param name 集計値の種類
+     * @param targetId 集計対象のid(全体の集計値は0)
+     */
+    public void increment(String name, int targetId) {
+
+        int updated = em.createNamedQuery(JpaConst.Q_COUNTER_ADD)
+                .setParameter(JpaConst.JPQL_PARM_VALUE, 1L)
+                .setParameter(JpaConst.JPQL_PARM_UPDATED_AT, LocalDateTime.now())
+                .setParameter(JpaConst.JPQL_PARM_NAME, name)
+                .setParameter(JpaConst.JPQL_PARM_TARGET, targetId)
+                .executeUpdate();
+
+        if (updated == 0) {
+            //未登録の場合は、登録したデータを含めて件数を数えて登録する
+            //(件数を数えた後に並行して登録された場合は、登録済みの集計値に加算する)
+            em.flush();
+            upsert(name, targetId, countSource(name, targetId), 1);
+        }
+    }
+
+    /**
+     * 全ての集計値を元のテーブルの件数で再計算する
+     * 加算漏れや手作業によるデータ修正で生じたずれを定期的に補正する
+     * (件数を数えて更新するまでを集計値の種類ごとに1つのSQLで行い、再計算中に並行して加算された値を失わないようにする)
+     */
+    public void reconcile() {
+
+        em.getTransaction().begin();
+
+        //登録済みの集計値を数え直す(日報のない従業員は0にする)
+        recount(JpaConst.Q_COUNTER_RECOUNT_REP_ALL, JpaConst.COUNTER_REP_ALL);
+        recount(JpaConst.Q_COUNTER_RECOUNT_EMP_ALL, JpaConst.COUNTER_EMP_ALL);
+        recount(JpaConst.Q_COUNTER_RECOUNT_REP_MINE, JpaConst.COUNTER_REP_MINE);
+
+        //未登録の集計値を登録する(登録済みの場合は何もしない)
+        upsert(JpaConst.COUNTER_REP_ALL, JpaConst.COUNTER_TARGET_NONE,
+                countSource(JpaConst.COUNTER_REP_ALL, JpaConst.COUNTER_TARGET_NONE), 0);
+        upsert(JpaConst.COUNTER_EMP_ALL, JpaConst.COUNTER_TARGET_NONE,
+                countSource(JpaConst.COUNTER_EMP_ALL, JpaConst.COUNTER_TARGET_NONE), 0);
+        List<Object[]> rows = em.createNamedQuery(JpaConst.Q_REP_COUNT_GROUP_BY_EMP, Object[].class)
+                .getResultList();
+        for (Object[] row : rows) {
+            upsert(JpaConst.COUNTER_REP_MINE, (Integer) row[0], (Long) row[1], 0);
+        }
+
+        em.getTransaction().commit();
+
+        reconcileLikeCounts();
+
+        //再計算した件数・いいね数で日報一覧を描画し直す
+        FragmentCache.bumpVersion();
+    }
+
+    /**
+     * 日報ごとのいいね数を、いいねテーブルの件数で再計算する
+     * 全ての日報を1つのSQLで更新すると、終わるまでいいねの登録・削除を待たせるため、
+     * 日報のidの範囲ごとにトランザクションを分けて更新する
+     */
+    private void reconcileLikeCounts() {
+
+        Integer maxId = em.createNamedQuery(JpaConst.Q_REP_GET_MAX_ID, Integer.class)
+                .getSingleResult();
+        if (maxId == null) {
+            return;
+        }
+
+        for (int from = 0; from < maxId; from += JpaConst.RECONCILE_CHUNK_SIZE) {
+            em.getTransaction().begin();
+            em.createNamedQuery(JpaConst.Q_REP_RECONCILE_LIKE_COUNT)
+                    .setParameter(JpaConst.JPQL_PARM_ID_FROM, from)
+                    .setParameter(JpaConst.JPQL_PARM_ID_TO, from + JpaConst.RECONCILE_CHUNK_SIZE)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        }
+    }
+
+    /**
+     * 指定した種類の登録済みの集計値を、元のテーブルの件数で更新する
+     * @param queryName 件数を数えて更新するクエリ
+     * @param name 集計値の種類
+     */
+    private void recount(String queryName, String name) {
+        em.createNamedQuery(queryName)
+                .setParameter(JpaConst.JPQL_PARM_UPDATED_AT, LocalDateTime.now())
+                .setParameter(JpaConst.JPQL_PARM_NAME, name)
+                .executeUpdate();
+    }
+
+    /**
+     * 集計値の元となるテーブルの件数を数え、返却する
+     * @param name 集計値の種類
+     * @param targetId 集計対象のid
+     * @return 件数
+     */
+    private long countSource(String name, int targetId) {
+
+        switch (name) {
+        case JpaConst.COUNTER_REP_ALL:
+            return em.createNamedQuery(JpaConst.Q_REP_COUNT, Long.class)
+                    .getSingleResult();
+        case JpaConst.COUNTER_EMP_ALL:
+            return em.createNamedQuery(JpaConst.Q_EMP_COUNT, Long.class)
+                    .getSingleResult();
+        case JpaConst.COUNTER_REP_MINE:
+            return em.createNamedQuery(JpaConst.Q_REP_COUNT_ALL_MINE, Long.class)
+                    .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, em.getReference(Employee.class, targetId))
+                    .getSingleResult();
+        default:
+            throw new IllegalArgumentException("unknown counter: " + name);
+        }
+    }
+
+    /**
+     * 集計値データを1件登録する
+     * 並行して登録され登録済みの場合は、一意制約違反にせず登録済みの集計値に加算する
+     * @param name 集計値の種類
+     * @param targetId 集計対象のid
+     * @param value 未登録の場合に登録する集計値
+     * @param delta 登録済みの場合に加算する値
+     */
+    private void upsert(String name, int targetId, long value, long delta) {
+        Query q = em.createNamedQuery(JpaConst.Q_COUNTER_UPSERT);
+
+        //更新するテーブルを指定し、SQLでの更新時に全てのエンティティの二次キャッシュが破棄されないようにする
+        q.unwrap(NativeQuery.class).addSynchronizedEntityClass(Counter.class);
+
+        q.setParameter(JpaConst.JPQL_PARM_NAME, name)
+                .setParameter(JpaConst.JPQL_PARM_TARGET, targetId)
+                .setParameter(JpaConst.JPQL_PARM_INITIAL_VALUE, value)
+                .setParameter(JpaConst.JPQL_PARM_VALUE, delta)
+                .setParameter(JpaConst.JPQL_PARM_UPDATED_AT, LocalDateTime.now())
+                .executeUpdate();
+    }
+
+}
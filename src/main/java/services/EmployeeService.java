@@ -2,7 +2,9 @@ package services;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 
 import actions.views.EmployeeConverter;
@@ -10,13 +12,29 @@ import actions.views.EmployeeView;
 import constants.JpaConst;
 import models.Employee;
 import models.validators.EmployeeValidator;
-import utils.EncryptUtil;
+import utils.FragmentCache;
+import utils.PasswordUtil;
 
 /**
  * 従業員テーブルの操作に関わる処理を行うクラス
  */
 public class EmployeeService extends ServiceBase {
 
+    /**
+     * コンストラクタ
+     */
+    public EmployeeService() {
+        super();
+    }
+
+    /**
+     * コンストラクタ
+     * @param em 1リクエスト内で共有するEntityManagerインスタンス
+     */
+    public EmployeeService(EntityManager em) {
+        super(em);
+    }
+
     /**
      * 指定されたページ数の一覧画面に表示するデータを取得し、EmployeeViewのリストで返却する
      * @param page ページ数
@@ -36,38 +54,82 @@ public class EmployeeService extends ServiceBase {
      * @return 従業員テーブルのデータの件数
      */
     public long countAll() {
-        long empCount = (long) em.createNamedQuery(JpaConst.Q_EMP_COUNT, Long.class)
-                .getSingleResult();
-
-        return empCount;
+        return new CounterService(em).get(JpaConst.COUNTER_EMP_ALL, JpaConst.COUNTER_TARGET_NONE);
     }
 
     /**
-     * 社員番号、パスワードを条件に取得したデータをEmployeeViewのインスタンスで返却する
+     * 社員番号とパスワードで認証し、認証できた従業員をEmployeeViewのインスタンスで返却する
+     * (検索は1回のみ行う 該当する従業員がいない場合も、応答時間が変わらないようハッシュ値の照合を行う)
      * @param code 社員番号
      * @param plainPass パスワード文字列
      * @param pepper pepper文字列
-     * @return 取得データのインスタンス 取得できない場合null
+     * @return 認証できた従業員のインスタンス 認証できない場合null
+     * @throws java.util.concurrent.RejectedExecutionException ハッシュ化の実行待ちが上限を超えた場合
      */
-    public EmployeeView findOne(String code, String plainPass, String pepper) {
+    public EmployeeView authenticate(String code, String plainPass, String pepper) {
+        if (code == null || code.equals("") || plainPass == null || plainPass.equals("")) {
+            //社員番号またはパスワードが未入力の場合はハッシュ化・検索を行わない
+            return null;
+        }
+
         Employee e = null;
         try {
-            //パスワードのハッシュ化
-            String pass = EncryptUtil.getPasswordEncrypt(plainPass, pepper);
-
-            //社員番号とハッシュ化済パスワードを条件に未削除の従業員を1件取得する
-            e = em.createNamedQuery(JpaConst.Q_EMP_GET_BY_CODE_AND_PASS, Employee.class)
+            //社員番号を条件に未削除の従業員を1件取得する
+            e = em.createNamedQuery(JpaConst.Q_EMP_GET_BY_CODE, Employee.class)
                     .setParameter(JpaConst.JPQL_PARM_CODE, code)
-                    .setParameter(JpaConst.JPQL_PARM_PASSWORD, pass)
                     .getSingleResult();
 
         } catch (NoResultException ex) {
+            //登録済みの社員番号かどうかを応答時間から推測されないよう、照合と同じ計算を行う
+            PasswordUtil.matchesDummy(plainPass, pepper);
+            return null;
+        }
+
+        //パスワードを保存済みのハッシュ値と照合する
+        boolean matched = PasswordUtil.matches(plainPass, pepper, e.getPassword());
+
+        if (PasswordUtil.needsRehash(e.getPassword())) {
+            //以前の方式のハッシュ値は照合の計算量が異なるため、現在の方式での照合と同じ計算を加えて応答時間を揃える
+            //(ハッシュ化し直す処理はログインを受け付けた後にupgradePasswordで行う)
+            PasswordUtil.matchesDummy(plainPass, pepper);
+        }
+
+        if (!matched) {
+            return null;
         }
 
         return EmployeeConverter.toView(e);
 
     }
 
+    /**
+     * 認証できた従業員のパスワードが以前の方式・コストでハッシュ化されている場合、現在の方式でハッシュ化し直して更新する
+     * (ログインを受け付けた後(CSRF対策のtokenのチェック後)に呼び出す)
+     * @param ev 認証できた従業員
+     * @param plainPass パスワード文字列
+     * @param pepper pepper文字列
+     */
+    public void upgradePassword(EmployeeView ev, String plainPass, String pepper) {
+        if (!PasswordUtil.needsRehash(ev.getPassword())) {
+            return;
+        }
+
+        String pass;
+        try {
+            pass = PasswordUtil.hash(plainPass, pepper);
+        } catch (RejectedExecutionException ex) {
+            //ハッシュ化が混み合っている場合は、次回のログイン時に行う
+            return;
+        }
+
+        em.getTransaction().begin();
+        Employee e = findOneInternal(ev.getId());
+        e.setPassword(pass);
+        em.getTransaction().commit();
+
+        ev.setPassword(pass);
+    }
+
     /**
      * idを条件に取得したデータをEmployeeViewのインスタンスで返却する
      * @param id
@@ -101,7 +163,7 @@ public class EmployeeService extends ServiceBase {
     public List<String> create(EmployeeView ev, String pepper) {
 
         //パスワードをハッシュ化して設定
-        String pass = EncryptUtil.getPasswordEncrypt(ev.getPassword(), pepper);
+        String pass = PasswordUtil.hash(ev.getPassword(), pepper);
         ev.setPassword(pass);
 
         //登録日時、更新日時は現在時刻を設定する
@@ -151,7 +213,7 @@ public class EmployeeService extends ServiceBase {
 
             //変更後のパスワードをハッシュ化し設定する
             savedEmp.setPassword(
-                    EncryptUtil.getPasswordEncrypt(ev.getPassword(), pepper));
+                    PasswordUtil.hash(ev.getPassword(), pepper));
         }
 
         savedEmp.setName(ev.getName()); //変更後の氏名を設定する
@@ -194,30 +256,6 @@ public class EmployeeService extends ServiceBase {
 
     }
 
-    /**
-     * 社員番号とパスワードを条件に検索し、データが取得できるかどうかで認証結果を返却する
-     * @param code 社員番号
-     * @param plainPass パスワード
-     * @param pepper pepper文字列
-     * @return 認証結果を返却す(成功:true 失敗:false)
-     */
-    public Boolean validateLogin(String code, String plainPass, String pepper) {
-
-        boolean isValidEmployee = false;
-        if (code != null && !code.equals("") && plainPass != null && !plainPass.equals("")) {
-            EmployeeView ev = findOne(code, plainPass, pepper);
-
-            if (ev != null && ev.getId() != null) {
-
-                //データが取得できた場合、認証成功
-                isValidEmployee = true;
-            }
-        }
-
-        //認証結果を返却する
-        return isValidEmployee;
-    }
-
     /**
      * idを条件にデータを1件取得し、Employeeのインスタンスで返却する
      * @param id
@@ -230,7 +268,7 @@ public class EmployeeService extends ServiceBase {
     }
 
     /**
-     * 従業員データを1件登録する
+     * 従業員データを1件登録し、従業員の件数の集計値を加算する
      * @param ev 従業員データ
      * @return 登録結果(成功:true 失敗:false)
      */
@@ -238,6 +276,7 @@ public class EmployeeService extends ServiceBase {
 
         em.getTransaction().begin();
         em.persist(EmployeeConverter.toModel(ev));
+        new CounterService(em).increment(JpaConst.COUNTER_EMP_ALL, JpaConst.COUNTER_TARGET_NONE);
         em.getTransaction().commit();
 
     }
@@ -253,6 +292,12 @@ public class EmployeeService extends ServiceBase {
         EmployeeConverter.copyViewToModel(e, ev);
         em.getTransaction().commit();
 
+        //二次キャッシュ上の従業員データを破棄し、次回参照時にDBから取得し直す(論理削除時も含む)
+        em.getEntityManagerFactory().getCache().evict(Employee.class, ev.getId());
+
+        //描画済みの日報一覧(氏名を表示している)を使わないようにする
+        FragmentCache.bumpVersion();
+
     }
 
 }
\ No newline at end of file
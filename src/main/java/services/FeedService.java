@@ -0,0 +1,85 @@
+package services;
+
+import javax.persistence.EntityManager;
+
+import actions.views.EmployeeConverter;
+import actions.views.EmployeeView;
+import constants.JpaConst;
+
+/**
+ * タイムラインテーブルの操作に関わる処理を行うクラス
+ * 日報の登録時・フォロー時にタイムラインへ書き込み、タイムライン画面ではフォローテーブルとの結合の代わりに参照する
+ * 各メソッドは呼び出し元のトランザクション内で、元データの更新と同時に実行すること
+ */
+public class FeedService extends ServiceBase {
+
+    /**
+     * コンストラクタ
+     */
+    public FeedService() {
+        super();
+    }
+
+    /**
+     * コンストラクタ
+     * @param em 1リクエスト内で共有するEntityManagerインスタンス
+     */
+    public FeedService(EntityManager em) {
+        super(em);
+    }
+
+    /**
+     * 登録した日報を、作成者をフォローしている全ての従業員のタイムラインに追加する
+     * @param reportId 登録した日報のid
+     * @return 追加した件数
+     */
+    public int fanOut(int reportId) {
+
+        em.flush();
+        return em.createNamedQuery(JpaConst.Q_FEED_FAN_OUT)
+                .setParameter(JpaConst.JPQL_PARM_ID, reportId)
+                .executeUpdate();
+    }
+
+    /**
+     * フォローされた従業員の日報を、フォローした従業員のタイムラインに追加する
+     * @param followingEmployee フォローした従業員
+     * @param followedEmployee フォローされた従業員
+     * @return 追加した件数
+     */
+    public int addFollowing(EmployeeView followingEmployee, EmployeeView followedEmployee) {
+
+        em.flush();
+        return em.createNamedQuery(JpaConst.Q_FEED_ADD_FOLLOWING)
+                .setParameter(JpaConst.JPQL_PARM_FOLLOWING_EMPLOYEE, EmployeeConverter.toModel(followingEmployee))
+                .setParameter(JpaConst.JPQL_PARM_FOLLOWED_EMPLOYEE, EmployeeConverter.toModel(followedEmployee))
+                .executeUpdate();
+    }
+
+    /**
+     * フォローを解除された従業員の日報を、フォローを解除した従業員のタイムラインから削除する
+     * @param followingEmployee フォローを解除した従業員
+     * @param followedEmployee フォローを解除された従業員
+     * @return 削除した件数
+     */
+    public int removeFollowing(EmployeeView followingEmployee, EmployeeView followedEmployee) {
+
+        return em.createNamedQuery(JpaConst.Q_FEED_REMOVE_FOLLOWING)
+                .setParameter(JpaConst.JPQL_PARM_FOLLOWING_EMPLOYEE, EmployeeConverter.toModel(followingEmployee))
+                .setParameter(JpaConst.JPQL_PARM_FOLLOWED_EMPLOYEE, EmployeeConverter.toModel(followedEmployee))
+                .executeUpdate();
+    }
+
+    /**
+     * 指定した従業員のタイムラインの日報の件数を取得し、返却する
+     * @param employee 従業員
+     * @return 日報の件数
+     */
+    public long countAllMine(EmployeeView employee) {
+
+        return em.createNamedQuery(JpaConst.Q_FEED_COUNT_ALL_MINE, Long.class)
+                .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, EmployeeConverter.toModel(employee))
+                .getSingleResult();
+    }
+
+}
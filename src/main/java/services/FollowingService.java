@@ -3,6 +3,8 @@ package services;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import javax.persistence.EntityManager;
+
 import actions.views.EmployeeConverter;
 import actions.views.EmployeeView;
 import actions.views.FollowingConverter;
@@ -15,6 +17,21 @@ import models.Following;
  */
 public class FollowingService extends ServiceBase {
 
+    /**
+     * コンストラクタ
+     */
+    public FollowingService() {
+        super();
+    }
+
+    /**
+     * コンストラクタ
+     * @param em 1リクエスト内で共有するEntityManagerインスタンス
+     */
+    public FollowingService(EntityManager em) {
+        super(em);
+    }
+
     /**
      * フォローした際にデータを1件作成し、フォローテーブルに登録する
      * @param fv フォローデータ
@@ -35,9 +52,50 @@ public class FollowingService extends ServiceBase {
 
         em.getTransaction().begin();
         em.remove(f);
+        em.flush();
+        //同じ従業員間のフォローデータが残っていない場合はタイムラインから削除する
+        if (!isFollowing(fv.getFollowingEmployee(), fv.getFollowedEmployee())) {
+            new FeedService(em).removeFollowing(fv.getFollowingEmployee(), fv.getFollowedEmployee());
+        }
         em.getTransaction().commit();
     }
 
+    /**
+     * 指定した従業員間のフォローデータを物理削除する
+     * @param followingEmployee フォローした従業員
+     * @param followedEmployee フォローされた従業員
+     * @return 削除した件数
+     */
+    public int destroy(EmployeeView followingEmployee, EmployeeView followedEmployee) {
+
+        em.getTransaction().begin();
+        int deleted = em.createNamedQuery(JpaConst.Q_FOLLOW_DELETE_BY_EMPS)
+                .setParameter(JpaConst.JPQL_PARM_FOLLOWING_EMPLOYEE, EmployeeConverter.toModel(followingEmployee))
+                .setParameter(JpaConst.JPQL_PARM_FOLLOWED_EMPLOYEE, EmployeeConverter.toModel(followedEmployee))
+                .executeUpdate();
+        //フォローを解除した従業員の日報をタイムラインから削除する
+        new FeedService(em).removeFollowing(followingEmployee, followedEmployee);
+        em.getTransaction().commit();
+
+        return deleted;
+    }
+
+    /**
+     * 指定した従業員が指定した従業員を既にフォローしているかどうかを返却する
+     * @param followingEmployee フォローした従業員
+     * @param followedEmployee フォローされた従業員
+     * @return フォロー済み:true フォローしていない:false
+     */
+    public boolean isFollowing(EmployeeView followingEmployee, EmployeeView followedEmployee) {
+
+        long count = (long) em.createNamedQuery(JpaConst.Q_FOLLOW_COUNT_BY_EMPS, Long.class)
+                .setParameter(JpaConst.JPQL_PARM_FOLLOWING_EMPLOYEE, EmployeeConverter.toModel(followingEmployee))
+                .setParameter(JpaConst.JPQL_PARM_FOLLOWED_EMPLOYEE, EmployeeConverter.toModel(followedEmployee))
+                .getSingleResult();
+
+        return count > 0;
+    }
+
     /**
      * フォローデータを1件登録する
      * @param fv フォローデータ
@@ -46,6 +104,8 @@ public class FollowingService extends ServiceBase {
 
         em.getTransaction().begin();
         em.persist(FollowingConverter.toModel(fv));
+        //フォローした従業員の日報をタイムラインに追加する
+        new FeedService(em).addFollowing(fv.getFollowingEmployee(), fv.getFollowedEmployee());
         em.getTransaction().commit();
 
     }
@@ -3,18 +3,41 @@ package services;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import actions.views.EmployeeConverter;
+import actions.views.EmployeeView;
 import actions.views.LikeConverter;
 import actions.views.LikeView;
 import actions.views.ReportConverter;
 import actions.views.ReportView;
 import constants.JpaConst;
 import models.Like;
+import utils.FragmentCache;
 
 /**
  * いいねテーブルの操作に関わる処理を行うクラス
  */
 public class LikeService extends ServiceBase {
 
+    /**
+     * コンストラクタ
+     */
+    public LikeService() {
+        super();
+    }
+
+    /**
+     * コンストラクタ
+     * @param em 1リクエスト内で共有するEntityManagerインスタンス
+     */
+    public LikeService(EntityManager em) {
+        super(em);
+    }
+
     /**
      * 指定した日報のいいねされたデータを、指定されたページ数の一覧画面に表示する分取得しLikeViewのリストで返却する
      * @param report 日報
@@ -33,39 +56,130 @@ public class LikeService extends ServiceBase {
 
     /**
      * 指定した日報のいいねされたデータの件数を取得し、返却する
+     * (日報テーブルのいいね数の列のみを参照する)
      * @param report
      * @return いいねデータの件数
      */
     public long countAllMine(ReportView report) {
 
-        long count = (long) em.createNamedQuery(JpaConst.Q_LIKE_COUNT_ALL_MINE, Long.class)
+        List<Integer> likeCounts = em.createNamedQuery(JpaConst.Q_REP_GET_LIKE_COUNT, Integer.class)
+                .setParameter(JpaConst.JPQL_PARM_ID, report.getId())
+                .getResultList();
+
+        return likeCounts.isEmpty() ? 0 : likeCounts.get(0);
+    }
+
+    /**
+     * 指定した従業員が指定した日報に既にいいねしているかどうかを返却する
+     * @param report 日報
+     * @param employee 従業員
+     * @return いいね済み:true いいねしていない:false
+     */
+    public boolean hasLiked(ReportView report, EmployeeView employee) {
+
+        long count = (long) em.createNamedQuery(JpaConst.Q_LIKE_COUNT_MINE_BY_EMP, Long.class)
                 .setParameter(JpaConst.JPQL_PARM_REPORT, ReportConverter.toModel(report))
+                .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, EmployeeConverter.toModel(employee))
                 .getSingleResult();
 
-        return count;
+        return count > 0;
     }
 
     /**
      * いいねされた際にデータを1件作成し、いいねテーブルに登録する
      * @param lv いいねの登録内容
+     * @return 登録結果(成功:true 既にいいね済み:false)
      */
-    public void create(LikeView lv) {
+    public boolean create(LikeView lv) {
         LocalDateTime ldt = LocalDateTime.now();
         lv.setCreatedAt(ldt);
         lv.setUpdatedAt(ldt);
-        createInternal(lv);
+        return createInternal(lv);
     }
 
     /**
-     * いいねデータを1件登録する
+     * いいねを取り消し、いいねテーブルからデータを削除する
+     * @param lv いいねの削除内容(日報と従業員を設定する)
+     * @return 削除結果(成功:true いいねしていない:false)
+     */
+    public boolean destroy(LikeView lv) {
+
+        em.getTransaction().begin();
+        int deleted = em.createNamedQuery(JpaConst.Q_LIKE_DELETE_MINE)
+                .setParameter(JpaConst.JPQL_PARM_REPORT, ReportConverter.toModel(lv.getReport()))
+                .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, EmployeeConverter.toModel(lv.getEmployee()))
+                .executeUpdate();
+        if (deleted > 0) {
+            addLikeCount(lv.getReport().getId(), -deleted);
+        }
+        em.getTransaction().commit();
+
+        if (deleted > 0) {
+            //描画済みの日報一覧(いいね数を表示している)を使わないようにする
+            FragmentCache.bumpVersion();
+        }
+
+        return deleted > 0;
+    }
+
+    /**
+     * いいねデータを1件登録し、日報のいいね数を加算する
+     * 重複したいいねは一意制約により登録されない
      * @param lv いいねデータ
+     * @return 登録結果(成功:true 既にいいね済み:false)
      */
-    private void createInternal(LikeView lv) {
+    private boolean createInternal(LikeView lv) {
 
         em.getTransaction().begin();
-        em.persist(LikeConverter.toModel(lv));
+        try {
+            em.persist(LikeConverter.toModel(lv));
+            em.flush();
+        } catch (PersistenceException e) {
+            em.getTransaction().rollback();
+            em.clear();
+            if (isDuplicateLike(e)) {
+                //既にいいね済みの場合
+                return false;
+            }
+            throw e;
+        }
+        addLikeCount(lv.getReport().getId(), 1);
         em.getTransaction().commit();
 
+        //描画済みの日報一覧(いいね数を表示している)を使わないようにする
+        FragmentCache.bumpVersion();
+
+        return true;
+    }
+
+    /**
+     * いいねデータの登録時の例外が、日報と従業員の一意制約の違反によるものかどうかを判定する
+     * (日報・従業員が削除済みの場合の外部キー制約違反などは含まない)
+     * @param e 登録時の例外
+     * @return 一意制約の違反の場合はtrue
+     */
+    private static boolean isDuplicateLike(PersistenceException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        //制約名はDBにより"likes.uk_likes_rep_emp"、"PUBLIC.UK_LIKES_REP_EMP_INDEX_4"のような形式になる
+        String constraint = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraint != null && constraint.toLowerCase().contains(JpaConst.LIKE_UK_REP_EMP);
+    }
+
+    /**
+     * 日報のいいね数に加算する
+     * 読み込み・更新を分けず1文のUPDATEで加算するため、同時にいいねされても加算漏れが発生しない
+     * (読み込み済みの日報エンティティには反映されない)
+     * @param reportId 日報のid
+     * @param value 加算する値
+     */
+    private void addLikeCount(int reportId, int value) {
+
+        em.createNamedQuery(JpaConst.Q_REP_ADD_LIKE_COUNT)
+                .setParameter(JpaConst.JPQL_PARM_VALUE, value)
+                .setParameter(JpaConst.JPQL_PARM_ID, reportId)
+                .executeUpdate();
     }
 
     /**
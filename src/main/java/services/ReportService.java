@@ -3,13 +3,19 @@ package services;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+
 import actions.views.EmployeeConverter;
 import actions.views.EmployeeView;
 import actions.views.ReportConverter;
+import actions.views.ReportSummaryView;
+import actions.views.ReportVersionView;
 import actions.views.ReportView;
 import constants.JpaConst;
 import models.Report;
 import models.validators.ReportValidator;
+import utils.FragmentCache;
 
 /**
  * 日報テーブルの操作に関わる処理を行うクラス
@@ -17,19 +23,51 @@ import models.validators.ReportValidator;
 public class ReportService extends ServiceBase {
 
     /**
-     * 指定した従業員が作成した日報データを、指定されたページ数の一覧画面に表示する分取得しReportViewのリストで返却する
+     * コンストラクタ
+     */
+    public ReportService() {
+        super();
+    }
+
+    /**
+     * コンストラクタ
+     * @param em 1リクエスト内で共有するEntityManagerインスタンス
+     */
+    public ReportService(EntityManager em) {
+        super(em);
+    }
+
+    /**
+     * 指定した従業員が作成した日報データを、指定されたページ数の一覧画面に表示する分より1件多く取得しReportSummaryViewのリストで返却する
      * @param employee 従業員
      * @param page ページ数
      * @return 一覧画面に表示するデータのリスト
      */
-    public List<ReportView> getMinePerPage(EmployeeView employee, int page) {
+    public List<ReportSummaryView> getMinePerPage(EmployeeView employee, int page) {
 
-        List<Report> reports = em.createNamedQuery(JpaConst.Q_REP_GET_ALL_MINE, Report.class)
+        List<ReportSummaryView> reports = em.createNamedQuery(JpaConst.Q_REP_GET_ALL_MINE, ReportSummaryView.class)
                 .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, EmployeeConverter.toModel(employee))
                 .setFirstResult(JpaConst.ROW_PER_PAGE * (page - 1))
-                .setMaxResults(JpaConst.ROW_PER_PAGE)
+                .setMaxResults(JpaConst.ROW_PER_PAGE + 1)
                 .getResultList();
-        return ReportConverter.toViewList(reports);
+        return reports;
+    }
+
+    /**
+     * 指定した従業員が作成した日報データのうち、カーソルより古いものを一覧画面に表示する分より1件多く取得しReportSummaryViewのリストで返却する
+     * (OFFSETを使わないため、深いページでも取得コストが一定になる)
+     * @param employee 従業員
+     * @param cursor カーソル(前ページ最後の日報のid)
+     * @return 一覧画面に表示するデータのリスト
+     */
+    public List<ReportSummaryView> getMineOlderThan(EmployeeView employee, int cursor) {
+
+        List<ReportSummaryView> reports = em.createNamedQuery(JpaConst.Q_REP_GET_ALL_MINE_OLDER, ReportSummaryView.class)
+                .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, EmployeeConverter.toModel(employee))
+                .setParameter(JpaConst.JPQL_PARM_CURSOR, cursor)
+                .setMaxResults(JpaConst.ROW_PER_PAGE + 1)
+                .getResultList();
+        return reports;
     }
 
     /**
@@ -38,28 +76,39 @@ public class ReportService extends ServiceBase {
      * @return 日報データの件数
      */
     public long countAllMine(EmployeeView employee) {
-
-        long count = (long) em.createNamedQuery(JpaConst.Q_REP_COUNT_ALL_MINE, Long.class)
-                .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, EmployeeConverter.toModel(employee))
-                .getSingleResult();
-
-        return count;
+        return new CounterService(em).get(JpaConst.COUNTER_REP_MINE, employee.getId());
     }
 
     /**
-     * 指定した従業員がフォローした従業員の作成した日報データを、指定されたページ数の一覧画面に表示する分取得しReportViewのリストで返却する
+     * 指定した従業員がフォローした従業員の作成した日報データを、指定されたページ数の一覧画面に表示する分より1件多く取得しReportSummaryViewのリストで返却する
      * @param employee 従業員
      * @param page ページ数
      * @return 一覧画面に表示するデータのリスト
      */
-    public List<ReportView> getReportForTimelinePerPage(EmployeeView employee, int page) {
+    public List<ReportSummaryView> getReportForTimelinePerPage(EmployeeView employee, int page) {
 
-        List<Report> reports = em.createNamedQuery(JpaConst.Q_REP_GET_ALL_FOLLOWING, Report.class)
+        List<ReportSummaryView> reports = em.createNamedQuery(JpaConst.Q_REP_GET_ALL_FOLLOWING, ReportSummaryView.class)
                 .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, EmployeeConverter.toModel(employee))
                 .setFirstResult(JpaConst.ROW_PER_PAGE * (page - 1))
-                .setMaxResults(JpaConst.ROW_PER_PAGE)
+                .setMaxResults(JpaConst.ROW_PER_PAGE + 1)
                 .getResultList();
-        return ReportConverter.toViewList(reports);
+        return reports;
+    }
+
+    /**
+     * 指定した従業員がフォローした従業員の作成した日報データのうち、カーソルより古いものを一覧画面に表示する分より1件多く取得しReportSummaryViewのリストで返却する
+     * @param employee 従業員
+     * @param cursor カーソル(前ページ最後の日報のid)
+     * @return 一覧画面に表示するデータのリスト
+     */
+    public List<ReportSummaryView> getReportForTimelineOlderThan(EmployeeView employee, int cursor) {
+
+        List<ReportSummaryView> reports = em.createNamedQuery(JpaConst.Q_REP_GET_ALL_FOLLOWING_OLDER, ReportSummaryView.class)
+                .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, EmployeeConverter.toModel(employee))
+                .setParameter(JpaConst.JPQL_PARM_CURSOR, cursor)
+                .setMaxResults(JpaConst.ROW_PER_PAGE + 1)
+                .getResultList();
+        return reports;
     }
 
     /**
@@ -68,26 +117,35 @@ public class ReportService extends ServiceBase {
      * @return 日報データの件数
      */
     public long countAllForTimeline(EmployeeView employee) {
-
-        long count = (long) em.createNamedQuery(JpaConst.Q_REP_COUNT_ALL_FOLLOWING, Long.class)
-                .setParameter(JpaConst.JPQL_PARM_EMPLOYEE, EmployeeConverter.toModel(employee))
-                .getSingleResult();
-
-        return count;
+        return new FeedService(em).countAllMine(employee);
     }
 
     /**
-     * 指定されたページ数の一覧画面に表示する日報データを取得し、ReportViewのリストで返却する
+     * 指定されたページ数の一覧画面に表示する日報データを1件多く取得し、ReportSummaryViewのリストで返却する
      * @param page ページ数
      * @return 一覧画面に表示するデータのリスト
      */
-    public List<ReportView> getAllPerPage(int page) {
+    public List<ReportSummaryView> getAllPerPage(int page) {
 
-        List<Report> reports = em.createNamedQuery(JpaConst.Q_REP_GET_ALL, Report.class)
+        List<ReportSummaryView> reports = em.createNamedQuery(JpaConst.Q_REP_GET_ALL, ReportSummaryView.class)
                 .setFirstResult(JpaConst.ROW_PER_PAGE * (page - 1))
-                .setMaxResults(JpaConst.ROW_PER_PAGE)
+                .setMaxResults(JpaConst.ROW_PER_PAGE + 1)
+                .getResultList();
+        return reports;
+    }
+
+    /**
+     * カーソルより古い日報データを一覧画面に表示する分より1件多く取得し、ReportSummaryViewのリストで返却する
+     * @param cursor カーソル(前ページ最後の日報のid)
+     * @return 一覧画面に表示するデータのリスト
+     */
+    public List<ReportSummaryView> getAllOlderThan(int cursor) {
+
+        List<ReportSummaryView> reports = em.createNamedQuery(JpaConst.Q_REP_GET_ALL_OLDER, ReportSummaryView.class)
+                .setParameter(JpaConst.JPQL_PARM_CURSOR, cursor)
+                .setMaxResults(JpaConst.ROW_PER_PAGE + 1)
                 .getResultList();
-        return ReportConverter.toViewList(reports);
+        return reports;
     }
 
     /**
@@ -95,9 +153,7 @@ public class ReportService extends ServiceBase {
      * @return データの件数
      */
     public long countAll() {
-        long reports_count = (long) em.createNamedQuery(JpaConst.Q_REP_COUNT, Long.class)
-                .getSingleResult();
-        return reports_count;
+        return new CounterService(em).get(JpaConst.COUNTER_REP_ALL, JpaConst.COUNTER_TARGET_NONE);
     }
 
     /**
@@ -109,6 +165,21 @@ public class ReportService extends ServiceBase {
         return ReportConverter.toView(findOneInternal(id));
     }
 
+    /**
+     * idを条件に、日報の詳細画面が変更されたかどうかの判定に使用する項目のみを取得する(日報の内容は読み込まない)
+     * @param id
+     * @return 取得データのインスタンス 該当の日報がない場合null
+     */
+    public ReportVersionView findVersion(int id) {
+        try {
+            return em.createNamedQuery(JpaConst.Q_REP_GET_VERSION, ReportVersionView.class)
+                    .setParameter(JpaConst.JPQL_PARM_ID, id)
+                    .getSingleResult();
+        } catch (NoResultException e) {
+            return null;
+        }
+    }
+
     /**
      * 画面から入力された日報の登録内容を元にデータを1件作成し、日報テーブルに登録する
      * @param rv 日報の登録内容
@@ -160,15 +231,26 @@ public class ReportService extends ServiceBase {
     }
 
     /**
-     * 日報データを1件登録する
+     * 日報データを1件登録し、日報の件数の集計値を加算する
      * @param rv 日報データ
      */
     private void createInternal(ReportView rv) {
 
+        CounterService counterService = new CounterService(em);
+        FeedService feedService = new FeedService(em);
+
         em.getTransaction().begin();
-        em.persist(ReportConverter.toModel(rv));
+        Report r = ReportConverter.toModel(rv);
+        em.persist(r);
+        counterService.increment(JpaConst.COUNTER_REP_ALL, JpaConst.COUNTER_TARGET_NONE);
+        counterService.increment(JpaConst.COUNTER_REP_MINE, rv.getEmployee().getId());
+        //作成者をフォローしている従業員のタイムラインに追加する
+        feedService.fanOut(r.getId());
         em.getTransaction().commit();
 
+        //描画済みの日報一覧を使わないようにする
+        FragmentCache.bumpVersion();
+
     }
 
     /**
@@ -182,6 +264,9 @@ public class ReportService extends ServiceBase {
         ReportConverter.copyViewToModel(r, rv);
         em.getTransaction().commit();
 
+        //描画済みの日報一覧を使わないようにする
+        FragmentCache.bumpVersion();
+
     }
 
 }
\ No newline at end of file
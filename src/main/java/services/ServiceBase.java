@@ -12,14 +12,39 @@ public class ServiceBase {
     /**
      * EntityManagerインスタンス
      */
-    protected EntityManager em = DBUtil.createEntityManager();
+    protected EntityManager em;
+
+    /**
+     * EntityManagerをこのServiceで生成・クローズするかどうか
+     */
+    private final boolean ownsEntityManager;
+
+    /**
+     * コンストラクタ
+     * EntityManagerを生成し、このServiceのみで使用する
+     */
+    public ServiceBase() {
+        this.em = DBUtil.createEntityManager();
+        this.ownsEntityManager = true;
+    }
+
+    /**
+     * コンストラクタ
+     * 1リクエスト内の複数のServiceで共有するEntityManagerを使用する(クローズは呼び出し元で行う)
+     * @param em EntityManagerインスタンス
+     */
+    public ServiceBase(EntityManager em) {
+        this.em = em;
+        this.ownsEntityManager = false;
+    }
 
     /**
      * EntityManagerのクローズ
+     * 共有しているEntityManagerの場合は何もしない
      */
     public void close() {
-        if (em.isOpen()) {
+        if (ownsEntityManager && em.isOpen()) {
             em.close();
         }
     }
-}
\ No newline at end of file
+}
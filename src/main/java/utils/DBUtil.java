@@ -1,26 +1,112 @@
 package utils;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
 
 import constants.JpaConst;
+import constants.PropertyConst;
 
 public class DBUtil {
 
-    private static EntityManagerFactory emf;
+    //application.propertiesのうち、persistence.xmlの設定を上書きするキーの接頭辞
+    private static final String[] OVERRIDE_PREFIXES = { "hibernate.", "javax.persistence." };
+
+    private static volatile EntityManagerFactory emf;
 
-    //EntityManagerインスタンスを生成
+    //EntityManagerインスタンスを生成(名前付きクエリの実行時間が閾値を超えた場合はログに出力する)
     public static EntityManager createEntityManager() {
-        return _getEntityManagerFactory().createEntityManager();
+        return SlowQueryLog.wrap(_getEntityManagerFactory().createEntityManager());
     }
 
-    //EntityManagerFactoryインスタンスを生成
-    private static EntityManagerFactory _getEntityManagerFactory() {
+    //Hibernateの統計情報(二次キャッシュのヒット・ミス件数等)を取得
+    public static Statistics getStatistics() {
+        return _getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    //EntityManagerFactoryインスタンスを生成し、スキーマのマイグレーションを実行する(アプリケーション起動時に呼び出す)
+    public static synchronized void init() {
         if (emf == null) {
-            emf = Persistence.createEntityManagerFactory(JpaConst.PERSISTENCE_UNIT_NAME);
+            EntityManagerFactory factory = Persistence.createEntityManagerFactory(JpaConst.PERSISTENCE_UNIT_NAME, loadOverrides());
+
+            if (Boolean.parseBoolean(PropertyUtil.getString(PropertyConst.DB_MIGRATE_ON_STARTUP, "true"))) {
+                try {
+                    _migrate(factory);
+                } catch (RuntimeException e) {
+                    factory.close();
+                    throw e;
+                }
+            }
+
+            emf = factory;
+        }
+    }
+
+    //EntityManagerFactoryインスタンスを破棄し、コネクションプールを閉じる(アプリケーション終了時に呼び出す)
+    public static synchronized void close() {
+        if (emf != null) {
+            if (emf.isOpen()) {
+                emf.close();
+            }
+            emf = null;
+        }
+    }
+
+    //EntityManagerFactoryインスタンスを取得(未生成の場合は生成する)
+    private static EntityManagerFactory _getEntityManagerFactory() {
+        EntityManagerFactory factory = emf;
+        if (factory == null) {
+            init();
+            factory = emf;
+        }
+
+        return factory;
+    }
+
+    //スキーマをdb/migrationのマイグレーションで作成・更新する(Hibernateのコネクションプールを使用する)
+    private static void _migrate(EntityManagerFactory factory) {
+        migrate(factory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class)
+                .unwrap(DataSource.class));
+    }
+
+    //指定したDBにdb/migrationのマイグレーションを適用する
+    //マイグレーション導入前にHibernateの自動生成で作成したDBは、初期スキーマ(V1)をベースラインとして以降のみ適用する
+    static void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    //application.propertiesからpersistence.xmlの設定を上書きする値を取得
+    private static Map<String, Object> loadOverrides() {
+        Map<String, Object> overrides = new HashMap<>();
+        Properties properties = PropertyUtil.getProperties();
+
+        for (String pname : properties.stringPropertyNames()) {
+            for (String prefix : OVERRIDE_PREFIXES) {
+                if (pname.startsWith(prefix)) {
+                    overrides.put(pname, properties.getProperty(pname));
+                    break;
+                }
+            }
         }
 
-        return emf;
+        return overrides;
     }
-}
\ No newline at end of file
+}
@@ -3,25 +3,43 @@ package utils;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
-import javax.xml.bind.DatatypeConverter;
-
 //ハッシュ化処理を行うクラス
 public class EncryptUtil {
 
+    //16進数表記に使用する文字(大文字)
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    //スレッドごとに再利用するSHA-256のMessageDigest(getInstanceはプロバイダの検索を伴うため、呼び出しごとには生成しない)
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            //SHA-256は全てのJava実行環境で利用できる
+            throw new IllegalStateException(ex);
+        }
+    });
+
     //生のパスワード文字列とpepper文字列を連結した文字列をSHA-256関数でハッシュ化し、返却する
     public static String getPasswordEncrypt(String plainPass, String pepper) {
         String ret = "";
 
         if (plainPass != null && !plainPass.equals("")) {
-            byte[] bytes;
             String password = plainPass + pepper;
-            try {
-                bytes = MessageDigest.getInstance("SHA-256").digest(password.getBytes());
-                ret = DatatypeConverter.printHexBinary(bytes);
-            } catch (NoSuchAlgorithmException ex) {
-            }
+            //digestは計算後にMessageDigestを初期状態に戻すため、そのまま再利用できる
+            byte[] bytes = SHA_256.get().digest(password.getBytes());
+            ret = toHex(bytes);
         }
 
         return ret;
     }
+
+    //バイト列を16進数(大文字)の文字列に変換する
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
 }
\ No newline at end of file
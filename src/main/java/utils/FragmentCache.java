@@ -0,0 +1,104 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import constants.PropertyConst;
+
+//全従業員で共通の一覧画面について、描画済みのHTMLを保持するクラス
+//キーには画面・ページ(またはカーソル)とデータのバージョンを含め、日報・いいね・従業員の更新時にバージョンを進めることで古いHTMLを使わないようにする
+//(古いバージョンのHTMLは参照されなくなり、件数の上限を超えた時点で最も長く参照されていないものから破棄する)
+public class FragmentCache {
+
+    //保持する件数の上限のデフォルト値
+    private static final int DEFAULT_MAX_ENTRIES = 200;
+
+    //保持する件数の上限(0以下の場合は保持しない)
+    private static final int MAX_ENTRIES = PropertyUtil.getInt(PropertyConst.FRAGMENT_CACHE_MAX_ENTRIES, DEFAULT_MAX_ENTRIES);
+
+    //一覧画面に表示するデータのバージョン
+    private static final AtomicLong version = new AtomicLong();
+
+    //キーと描画済みのHTML(参照順に並べ、上限を超えた場合は最も長く参照されていないものを破棄する)
+    private static final Map<String, String> entries = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            if (size() > MAX_ENTRIES) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    //保持しているHTMLを使用できた件数・できなかった件数・上限を超えて破棄した件数
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+
+    //一覧画面に表示するデータの現在のバージョンを取得(データの取得前に呼び出し、HTMLを保持する際のキーに使用する)
+    public static long getVersion() {
+        return version.get();
+    }
+
+    //一覧画面に表示するデータを更新した際に呼び出す(トランザクションのコミット後に呼び出す)
+    public static void bumpVersion() {
+        version.incrementAndGet();
+    }
+
+    //画面・ページとバージョンに該当する描画済みのHTMLを取得(保持していない場合null)
+    public static String get(String view, String page, long version) {
+        if (MAX_ENTRIES <= 0) {
+            return null;
+        }
+
+        String html;
+        synchronized (entries) {
+            html = entries.get(key(view, page, version));
+        }
+
+        if (html == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return html;
+    }
+
+    //画面・ページとバージョンに該当する描画済みのHTMLを保持する
+    public static void put(String view, String page, long version, String html) {
+        if (MAX_ENTRIES <= 0 || html == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.put(key(view, page, version), html);
+        }
+    }
+
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    public static long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public static int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String key(String view, String page, long version) {
+        return view + "\0" + page + "\0" + version;
+    }
+}
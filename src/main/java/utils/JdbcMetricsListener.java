@@ -0,0 +1,39 @@
+package utils;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * EntityManager(Hibernateのセッション)ごとに生成され、SQLの実行回数と実行時間をMetricsUtilに記録するクラス
+ * persistence.xmlの hibernate.session.events.auto で登録する
+ *
+ */
+public class JdbcMetricsListener extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 実行中のSQLの開始時刻(ナノ秒)
+     */
+    private long start;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        MetricsUtil.recordStatement(System.nanoTime() - start);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        MetricsUtil.recordStatement(System.nanoTime() - start);
+    }
+
+}
@@ -0,0 +1,78 @@
+package utils;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 処理時間の分布を区間(バケット)ごとの件数で集計するクラス
+ * 複数スレッドから同時に記録できる
+ *
+ */
+public class LatencyHistogram {
+
+    /**
+     * バケットの上限(秒)
+     */
+    public static final double[] BUCKETS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+    /**
+     * バケットの上限(ナノ秒)
+     */
+    private static final long[] BOUNDS_NANOS = new long[BUCKETS.length];
+    static {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BUCKETS[i] * 1_000_000_000L);
+        }
+    }
+
+    /**
+     * バケットごとの件数(最後の要素は最大のバケットを超えた件数)
+     */
+    private final LongAdder[] counts = new LongAdder[BUCKETS.length + 1];
+
+    /**
+     * 処理時間の合計(ナノ秒)
+     */
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 処理時間を1件記録する
+     * @param nanos 処理時間(ナノ秒)
+     */
+    public void record(long nanos) {
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i]) {
+            i++;
+        }
+        counts[i].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * 各バケットの上限以下の件数(累積値)を取得する
+     * @return 累積件数の配列(最後の要素は全件数)
+     */
+    public long[] getCumulativeCounts() {
+        long[] cumulative = new long[counts.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i].sum();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    /**
+     * 処理時間の合計(秒)を取得する
+     * @return 処理時間の合計(秒)
+     */
+    public double getSumSeconds() {
+        return sumNanos.sum() / 1e9;
+    }
+
+}
@@ -0,0 +1,127 @@
+package utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * リクエストごとの処理時間・SQLの実行回数と実行時間を、actionとcommandの組み合わせごとに集計するクラス
+ *
+ */
+public class MetricsUtil {
+
+    /**
+     * 処理中のリクエストで実行したSQLの回数と時間(リクエストを処理しているスレッドごとに保持する)
+     */
+    private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+
+    /**
+     * actionとcommandの組み合わせごとの集計値
+     */
+    private static final ConcurrentMap<String, RouteMetrics> ROUTES = new ConcurrentHashMap<>();
+
+    //リクエストの処理開始時に呼び出し、処理中のスレッドにSQLの回数と時間の集計先を設定する
+    public static RequestStats beginRequest() {
+        RequestStats stats = new RequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    //処理中のスレッドに設定されている集計先を取得(非同期処理のスレッドに引き継ぐ場合に使用する)
+    public static RequestStats current() {
+        return CURRENT.get();
+    }
+
+    //処理中のスレッドに集計先を設定する(非同期処理のスレッドで処理を開始する際に呼び出す)
+    public static void attach(RequestStats stats) {
+        CURRENT.set(stats);
+    }
+
+    //処理中のスレッドから集計先を外す
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    //リクエストの処理終了時に呼び出し、処理時間とリクエスト内で実行したSQLの回数・時間を集計する
+    public static void endRequest(RequestStats stats, String action, String command, long elapsedNanos) {
+        RouteMetrics route = ROUTES.computeIfAbsent(action + "\0" + command, k -> new RouteMetrics(action, command));
+        route.latency.record(elapsedNanos);
+        if (stats != null) {
+            route.statements.add(stats.count);
+            route.statementNanos.add(stats.nanos);
+        }
+    }
+
+    //SQLを1回実行するごとに呼び出す(リクエストの処理中でない場合は何もしない)
+    public static void recordStatement(long nanos) {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.count++;
+            stats.nanos += nanos;
+        }
+    }
+
+    //actionとcommandの組み合わせごとの集計値を、action・commandの順に並べて取得
+    public static Map<String, RouteMetrics> getRouteMetrics() {
+        return new TreeMap<>(ROUTES);
+    }
+
+    /**
+     * 1リクエスト内で実行したSQLの回数と時間
+     */
+    public static class RequestStats {
+        private long count;
+        private long nanos;
+    }
+
+    /**
+     * actionとcommandの組み合わせごとの集計値
+     */
+    public static class RouteMetrics {
+
+        private final String action;
+        private final String command;
+
+        /**
+         * リクエストの処理時間の分布
+         */
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        /**
+         * 実行したSQLの回数
+         */
+        private final LongAdder statements = new LongAdder();
+
+        /**
+         * SQLの実行時間の合計(ナノ秒)
+         */
+        private final LongAdder statementNanos = new LongAdder();
+
+        private RouteMetrics(String action, String command) {
+            this.action = action;
+            this.command = command;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getStatementCount() {
+            return statements.sum();
+        }
+
+        public double getStatementSeconds() {
+            return statementNanos.sum() / 1e9;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package utils;
+
+/**
+ * パスワードのハッシュ化方式
+ * ハッシュ値は方式ごとの接頭辞(例: $pbkdf2-sha256$)とコスト等のパラメータを含む文字列で保存し、
+ * 保存済みのハッシュ値から照合に使用する方式を判別する
+ *
+ */
+public interface PasswordHasher {
+
+    /**
+     * この方式で作成したハッシュ値かどうかを判定する
+     * @param stored 保存済みのハッシュ値
+     * @return この方式のハッシュ値の場合true
+     */
+    boolean supports(String stored);
+
+    /**
+     * パスワードをハッシュ化する
+     * @param plainPass パスワード文字列
+     * @param pepper pepper文字列
+     * @return ハッシュ値
+     */
+    String hash(String plainPass, String pepper);
+
+    /**
+     * パスワードが保存済みのハッシュ値と一致するかどうかを判定する
+     * @param plainPass パスワード文字列
+     * @param pepper pepper文字列
+     * @param stored 保存済みのハッシュ値
+     * @return 一致する場合true
+     */
+    boolean matches(String plainPass, String pepper, String stored);
+
+    /**
+     * 保存済みのハッシュ値を、この方式の現在の設定でハッシュ化し直す必要があるかどうかを判定する
+     * @param stored 保存済みのハッシュ値
+     * @return ハッシュ化し直す必要がある場合true
+     */
+    boolean needsRehash(String stored);
+
+}
@@ -0,0 +1,154 @@
+package utils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import constants.PropertyConst;
+
+//パスワードのハッシュ化・照合を行うクラス
+//ハッシュ化は計算量が大きいため、起動時に生成したスレッド数・待ち件数に上限のあるスレッドプールで実行する
+//(ログインが集中しても、画面表示を行うリクエストのスレッドがCPUを使えなくならないようにする)
+public class PasswordUtil {
+
+    //PBKDF2の反復回数のデフォルト値
+    private static final int DEFAULT_ITERATIONS = 310000;
+
+    //新しくハッシュ化する際に使用する方式
+    private static final PasswordHasher CURRENT = new Pbkdf2PasswordHasher(
+            PropertyUtil.getInt(PropertyConst.PASSWORD_HASH_ITERATIONS, DEFAULT_ITERATIONS));
+
+    //照合に使用できる方式(保存済みのハッシュ値から判別する)
+    private static final List<PasswordHasher> HASHERS = List.of(CURRENT, new Sha256PasswordHasher());
+
+    //存在しない従業員の認証時に照合するハッシュ値(現在の方式・コストでランダムな文字列をハッシュ化したもの 初回使用時に生成する)
+    private static class DummyHash {
+        private static final String VALUE = CURRENT.hash(UUID.randomUUID().toString(), "");
+    }
+
+    //ハッシュ化を実行するスレッドプール(未生成の場合は呼び出し元のスレッドで実行する)
+    private static volatile ThreadPoolExecutor executor;
+
+    //ハッシュ化の完了を待つ時間(ミリ秒)
+    private static volatile long timeoutMillis;
+
+    //スレッドプールが満杯、または完了を待てずに実行しなかった件数
+    private static final LongAdder rejected = new LongAdder();
+
+    //ハッシュ化を実行するスレッドプールを生成する(アプリケーション起動時に呼び出す)
+    public static synchronized void start(int threads, int queueSize, long timeout) {
+        if (executor == null) {
+            AtomicInteger seq = new AtomicInteger();
+            executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueSize), r -> {
+                        Thread t = new Thread(r, "password-hasher-" + seq.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            timeoutMillis = timeout;
+        }
+    }
+
+    //ハッシュ化を実行するスレッドプールを停止する(アプリケーション終了時に呼び出す)
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    //パスワードを現在の方式でハッシュ化する(未入力の場合は空文字を返却し、入力チェックでエラーにする)
+    //スレッドプールが満杯、または時間内に完了しない場合はRejectedExecutionException
+    public static String hash(String plainPass, String pepper) {
+        if (plainPass == null || plainPass.equals("")) {
+            return "";
+        }
+        return execute(() -> CURRENT.hash(plainPass, pepper));
+    }
+
+    //パスワードが保存済みのハッシュ値と一致するかどうかを判定する(ハッシュ値の方式は接頭辞から判別する)
+    //スレッドプールが満杯、または時間内に完了しない場合はRejectedExecutionException
+    public static boolean matches(String plainPass, String pepper, String stored) {
+        if (plainPass == null || plainPass.equals("")) {
+            return false;
+        }
+
+        for (PasswordHasher hasher : HASHERS) {
+            if (hasher.supports(stored)) {
+                return execute(() -> hasher.matches(plainPass, pepper, stored));
+            }
+        }
+        return false;
+    }
+
+    //存在しない従業員の認証で、保存済みのハッシュ値との照合と同じ計算を行う(結果は常に不一致)
+    //(応答時間の差から登録済みの社員番号を推測されないようにする)
+    //スレッドプールが満杯、または時間内に完了しない場合はRejectedExecutionException
+    public static void matchesDummy(String plainPass, String pepper) {
+        matches(plainPass, pepper, DummyHash.VALUE);
+    }
+
+    //保存済みのハッシュ値を現在の方式・コストでハッシュ化し直す必要があるかどうかを判定する
+    public static boolean needsRehash(String stored) {
+        return !CURRENT.supports(stored) || CURRENT.needsRehash(stored);
+    }
+
+    //スレッドプールが満杯、または完了を待てずに実行しなかった件数を取得
+    public static long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    //スレッドプールで実行待ちのハッシュ化の件数を取得
+    public static int getQueuedCount() {
+        ThreadPoolExecutor ex = executor;
+        return ex == null ? 0 : ex.getQueue().size();
+    }
+
+    //スレッドプールでハッシュ化を実行し、完了を待って結果を返却する
+    private static <T> T execute(Callable<T> task) {
+        ThreadPoolExecutor ex = executor;
+        if (ex == null) {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Future<T> future;
+        try {
+            future = ex.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new RejectedExecutionException("password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
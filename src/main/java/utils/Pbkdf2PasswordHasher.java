@@ -0,0 +1,106 @@
+package utils;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PBKDF2(HMAC-SHA256)によるハッシュ化方式
+ * ハッシュ値は $pbkdf2-sha256$反復回数$ソルト$ハッシュ (ソルト・ハッシュはBase64) の形式で保存する
+ *
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    /**
+     * ハッシュ値の接頭辞
+     */
+    public static final String PREFIX = "$pbkdf2-sha256$";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    private static final int SALT_BYTES = 16;
+
+    private static final int KEY_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * 新しくハッシュ化する際の反復回数(コスト)
+     */
+    private final int iterations;
+
+    /**
+     * コンストラクタ
+     * @param iterations 新しくハッシュ化する際の反復回数
+     */
+    public Pbkdf2PasswordHasher(int iterations) {
+        this.iterations = iterations;
+    }
+
+    @Override
+    public boolean supports(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    @Override
+    public String hash(String plainPass, String pepper) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations
+                + "$" + encoder.encodeToString(salt)
+                + "$" + encoder.encodeToString(derive(plainPass + pepper, salt, iterations));
+    }
+
+    @Override
+    public boolean matches(String plainPass, String pepper, String stored) {
+        String[] parts = split(stored);
+        if (parts == null) {
+            return false;
+        }
+
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] expected = decoder.decode(parts[2]);
+        byte[] actual = derive(plainPass + pepper, decoder.decode(parts[1]), Integer.parseInt(parts[0]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        String[] parts = split(stored);
+        return parts == null || Integer.parseInt(parts[0]) != iterations;
+    }
+
+    /**
+     * 保存済みのハッシュ値を反復回数・ソルト・ハッシュに分割する
+     * @return 分割した値 形式が正しくない場合null
+     */
+    private static String[] split(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return null;
+        }
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3 || !parts[0].matches("[1-9][0-9]{0,8}")) {
+            return null;
+        }
+        return parts;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException ex) {
+            //PBKDF2WithHmacSHA256は全てのJava実行環境(Java 8以降)で利用できる
+            throw new IllegalStateException(ex);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+}
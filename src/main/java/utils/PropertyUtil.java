@@ -0,0 +1,61 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import constants.PropertyConst;
+
+//application.propertiesの値を取得するクラス(サーブレットコンテキストを参照できない処理から使用する)
+public class PropertyUtil {
+
+    private static volatile Properties properties;
+
+    //application.propertiesの全ての値を取得
+    public static Properties getProperties() {
+        Properties props = properties;
+        if (props == null) {
+            props = _loadProperties();
+        }
+
+        return props;
+    }
+
+    //指定したキーの値を文字列で取得(設定がない場合はデフォルト値)
+    public static String getString(PropertyConst key, String defaultValue) {
+        return getProperties().getProperty(key.getValue(), defaultValue);
+    }
+
+    //指定したキーの値を数値で取得(設定がない、または数値でない場合はデフォルト値)
+    public static int getInt(PropertyConst key, int defaultValue) {
+        String value = getProperties().getProperty(key.getValue());
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    //application.propertiesを読み込む(初回のみ)
+    private static synchronized Properties _loadProperties() {
+        if (properties == null) {
+            Properties props = new Properties();
+
+            try (InputStream is = PropertyUtil.class.getClassLoader().getResourceAsStream("application.properties")) {
+                if (is != null) {
+                    props.load(is);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            properties = props;
+        }
+
+        return properties;
+    }
+}
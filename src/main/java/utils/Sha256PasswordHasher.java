@@ -0,0 +1,41 @@
+package utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * ソルトなしのSHA-256によるハッシュ化方式(接頭辞のない64文字の16進数)
+ * 以前の方式で保存したハッシュ値の照合のみに使用し、ログイン時に現在の方式でハッシュ化し直す
+ *
+ */
+public class Sha256PasswordHasher implements PasswordHasher {
+
+    /**
+     * ハッシュ値の長さ(SHA-256の16進数表記)
+     */
+    private static final int HEX_LENGTH = 64;
+
+    @Override
+    public boolean supports(String stored) {
+        return stored != null && stored.length() == HEX_LENGTH && !stored.startsWith("$");
+    }
+
+    @Override
+    public String hash(String plainPass, String pepper) {
+        return EncryptUtil.getPasswordEncrypt(plainPass, pepper);
+    }
+
+    @Override
+    public boolean matches(String plainPass, String pepper, String stored) {
+        //比較にかかる時間から一致した文字数を推測されないよう、全ての文字を比較する
+        return MessageDigest.isEqual(
+                hash(plainPass, pepper).getBytes(StandardCharsets.US_ASCII),
+                stored.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean needsRehash(String stored) {
+        return true;
+    }
+
+}
@@ -0,0 +1,289 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.Parameter;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+
+import org.hibernate.Session;
+
+import constants.PropertyConst;
+
+/**
+ * 実行時間が閾値を超えた名前付きクエリ(JpaConstのQ_*)を、パラメータ・取得件数・実行時間とともにログに出力するクラス
+ * 設定により、クエリごとに初めて閾値を超えた時にEXPLAINを実行し、実行計画をログに出力・保持する
+ *
+ */
+public class SlowQueryLog {
+
+    private static final Logger LOGGER = Logger.getLogger("slow_query");
+
+    /**
+     * 閾値(ミリ秒)のデフォルト値
+     */
+    private static final int DEFAULT_THRESHOLD = 500;
+
+    /**
+     * 閾値(ナノ秒) 負の場合はログを出力しない
+     */
+    private static final long THRESHOLD_NANOS;
+
+    /**
+     * 初めて閾値を超えた時にEXPLAINを実行するかどうか
+     */
+    private static final boolean EXPLAIN;
+
+    static {
+        int thresholdMillis = PropertyUtil.getInt(PropertyConst.SLOW_QUERY_THRESHOLD, DEFAULT_THRESHOLD);
+        THRESHOLD_NANOS = thresholdMillis < 0 ? -1 : thresholdMillis * 1_000_000L;
+        EXPLAIN = Boolean.parseBoolean(PropertyUtil.getString(PropertyConst.SLOW_QUERY_EXPLAIN, "false"));
+    }
+
+    /**
+     * 実行するとクエリの実行時間を計測するメソッド
+     */
+    private static final List<String> EXECUTE_METHODS = List.of("getResultList", "getSingleResult", "executeUpdate");
+
+    /**
+     * クエリ文字列中の名前付きパラメータ
+     */
+    private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+    /**
+     * 名前付きクエリごとの閾値を超えた回数
+     */
+    private static final ConcurrentMap<String, LongAdder> COUNTS = new ConcurrentHashMap<>();
+
+    /**
+     * 名前付きクエリごとの実行計画(EXPLAINを実行中または実行できなかった場合は空文字)
+     */
+    private static final ConcurrentMap<String, String> PLANS = new ConcurrentHashMap<>();
+
+    //EntityManagerの名前付きクエリの実行時間を計測するようにする(ログを出力しない設定の場合はそのまま返却)
+    public static EntityManager wrap(EntityManager em) {
+        if (THRESHOLD_NANOS < 0) {
+            return em;
+        }
+        return (EntityManager) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[] { EntityManager.class }, new EntityManagerHandler(em));
+    }
+
+    //名前付きクエリごとの閾値を超えた回数を、クエリ名の順に並べて取得
+    public static Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        COUNTS.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    //名前付きクエリごとの実行計画を、クエリ名の順に並べて取得
+    public static Map<String, String> getPlans() {
+        Map<String, String> plans = new TreeMap<>();
+        PLANS.forEach((name, plan) -> {
+            if (!plan.isEmpty()) {
+                plans.put(name, plan);
+            }
+        });
+        return plans;
+    }
+
+    /**
+     * 実行時間が閾値を超えていればログに出力する
+     */
+    private static void record(EntityManager em, String name, Query query, List<String> sqls, int rows, long elapsedNanos) {
+        if (elapsedNanos < THRESHOLD_NANOS) {
+            return;
+        }
+        COUNTS.computeIfAbsent(name, k -> new LongAdder()).increment();
+
+        Map<String, Object> params = getParameters(em, query);
+        LOGGER.warning(String.format("slow query: %s elapsed=%dms rows=%d params=%s",
+                name, elapsedNanos / 1_000_000, rows, params));
+
+        //クエリごとに初めて閾値を超えた時のみEXPLAINを実行する
+        if (sqls != null && PLANS.putIfAbsent(name, "") == null) {
+            String plan = explain(em, query, sqls, params);
+            if (plan != null) {
+                PLANS.put(name, plan);
+                LOGGER.warning("query plan: " + name + "\n" + plan);
+            }
+        }
+    }
+
+    /**
+     * クエリに設定したパラメータを取得する(エンティティはidに変換する)
+     */
+    private static Map<String, Object> getParameters(EntityManager em, Query query) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (Parameter<?> p : query.getParameters()) {
+            if (p.getName() != null && query.isBound(p)) {
+                Object value = query.getParameterValue(p);
+                if (value != null && value.getClass().isAnnotationPresent(Entity.class)) {
+                    value = em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(value);
+                }
+                params.put(p.getName(), value);
+            }
+        }
+        return params;
+    }
+
+    /**
+     * クエリのSQLに対してEXPLAINを実行し、結果を1行ずつ文字列にして返却する
+     * SQLの?には、クエリ文字列中の名前付きパラメータの出現順に値を設定し、残りは取得件数の制限とみなして設定する
+     * @return 実行計画(値を設定できない場合やEXPLAINに失敗した場合はnull)
+     */
+    private static String explain(EntityManager em, Query query, List<String> sqls, Map<String, Object> params) {
+        if (sqls.size() != 1) {
+            return null;
+        }
+        String sql = sqls.get(0);
+
+        List<Object> values = new ArrayList<>();
+        Matcher m = NAMED_PARAMETER.matcher(query.unwrap(org.hibernate.query.Query.class).getQueryString());
+        while (m.find()) {
+            values.add(params.get(m.group(1)));
+        }
+
+        int extra = (int) sql.chars().filter(c -> c == '?').count() - values.size();
+        if (extra == 1) {
+            values.add(query.getMaxResults());
+        } else if (extra == 2) {
+            //LIMIT ? OFFSET ?(件数・開始位置) または LIMIT ?, ?(開始位置・件数)
+            boolean offsetLast = sql.toLowerCase().matches("(?s).*limit \\? offset \\?\\s*$");
+            values.add(offsetLast ? query.getMaxResults() : query.getFirstResult());
+            values.add(offsetLast ? query.getFirstResult() : query.getMaxResults());
+        } else if (extra != 0) {
+            return null;
+        }
+
+        try {
+            return em.unwrap(Session.class).doReturningWork(con -> {
+                try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+                    for (int i = 0; i < values.size(); i++) {
+                        ps.setObject(i + 1, values.get(i));
+                    }
+                    return format(ps.executeQuery());
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "EXPLAIN failed: " + sql, e);
+            return null;
+        }
+    }
+
+    /**
+     * EXPLAINの結果を「列名=値」の形式で1行ずつ文字列にする
+     */
+    private static String format(ResultSet rs) throws SQLException {
+        ResultSetMetaData md = rs.getMetaData();
+        StringBuilder sb = new StringBuilder();
+        while (rs.next()) {
+            for (int i = 1; i <= md.getColumnCount(); i++) {
+                sb.append(i == 1 ? "" : ", ").append(md.getColumnLabel(i)).append('=').append(rs.getString(i));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 名前付きクエリの生成を横取りし、実行時間を計測するクエリを返却するEntityManager
+     */
+    private static class EntityManagerHandler implements InvocationHandler {
+
+        private final EntityManager em;
+
+        EntityManagerHandler(EntityManager em) {
+            this.em = em;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(em, method, args);
+
+            if ("createNamedQuery".equals(method.getName())) {
+                Class<?> type = result instanceof TypedQuery ? TypedQuery.class : Query.class;
+                return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[] { type },
+                        new QueryHandler(em, (String) args[0], (Query) result));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 実行時間を計測する名前付きクエリ
+     */
+    private static class QueryHandler implements InvocationHandler {
+
+        private final EntityManager em;
+        private final String name;
+        private final Query query;
+
+        QueryHandler(EntityManager em, String name, Query query) {
+            this.em = em;
+            this.name = name;
+            this.query = query;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!EXECUTE_METHODS.contains(method.getName())) {
+                Object result = invokeTarget(query, method, args);
+                //setParameter等のメソッドチェーンでも計測を続ける(unwrapは実装クラスを返す)
+                return result == query && !"unwrap".equals(method.getName()) ? proxy : result;
+            }
+
+            //実行計画が未取得の場合のみ、実行するSQLを取得する
+            boolean capture = EXPLAIN && !PLANS.containsKey(name);
+            if (capture) {
+                SqlCaptureInspector.begin();
+            }
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = invokeTarget(query, method, args);
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                List<String> sqls = capture ? SqlCaptureInspector.end() : null;
+                int rows = result instanceof List ? ((List<?>) result).size()
+                        : result instanceof Integer ? (Integer) result
+                        : result == null ? 0 : 1;
+                record(em, name, query, sqls, rows, elapsed);
+            }
+        }
+    }
+
+    /**
+     * 元のオブジェクトのメソッドを呼び出す(発生した例外はそのまま呼び出し元に投げる)
+     */
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 実行するSQLを、取得を開始したスレッドごとに保持するクラス(SQLは変更しない)
+ * SlowQueryLogがEXPLAINを実行するSQLの取得に使用する
+ * persistence.xmlの hibernate.session_factory.statement_inspector で登録する
+ *
+ */
+public class SqlCaptureInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 取得中のSQLの一覧(取得していないスレッドではnull)
+     */
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    //このスレッドで実行するSQLの取得を開始する
+    public static void begin() {
+        CAPTURED.set(new ArrayList<>());
+    }
+
+    //取得を終了し、開始後に実行したSQLを取得する
+    public static List<String> end() {
+        List<String> sqls = CAPTURED.get();
+        CAPTURED.remove();
+        return sqls == null ? new ArrayList<>() : sqls;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> sqls = CAPTURED.get();
+        if (sqls != null) {
+            sqls.add(sql);
+        }
+        return sql;
+    }
+
+}
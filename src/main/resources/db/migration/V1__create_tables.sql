@@ -0,0 +1,73 @@
+-- 初期スキーマ(これまでHibernateの自動生成で作成していたテーブルと同じ構成・制約名)
+-- 自動生成で作成済みのDBは、このバージョンをベースラインとして以降のマイグレーションのみ適用する
+-- そのため、このファイルには自動生成の結果と異なる変更を加えず、変更は以降のバージョンで行うこと
+
+CREATE TABLE employees (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    admin_flag INTEGER NOT NULL,
+    code VARCHAR(255) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    delete_flag INTEGER NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    password VARCHAR(64) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE following (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    followed_employee_id INTEGER NOT NULL,
+    following_employee_id INTEGER NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE likes (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    employee_id INTEGER NOT NULL,
+    report_id INTEGER NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE reports (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    content LONGTEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    number_of_likes INTEGER NOT NULL,
+    report_date DATE NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    employee_id INTEGER NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+ALTER TABLE employees
+    ADD CONSTRAINT UK_3um79qgwg340lpaw7phtwudtc UNIQUE (code);
+
+ALTER TABLE following
+    ADD CONSTRAINT FKatl61w4gl1pv4vyq8rvpmyi11
+    FOREIGN KEY (followed_employee_id)
+    REFERENCES employees (id);
+
+ALTER TABLE following
+    ADD CONSTRAINT FKjk3e0kahofy60oyp1hc3f0nbq
+    FOREIGN KEY (following_employee_id)
+    REFERENCES employees (id);
+
+ALTER TABLE likes
+    ADD CONSTRAINT FKj1c196w92a949gsjfao48uldc
+    FOREIGN KEY (employee_id)
+    REFERENCES employees (id);
+
+ALTER TABLE likes
+    ADD CONSTRAINT FK1io2phls8opufu7f6w8nkx8ul
+    FOREIGN KEY (report_id)
+    REFERENCES reports (id);
+
+ALTER TABLE reports
+    ADD CONSTRAINT FK7m58c0h3phjcm6bco7aqikfen
+    FOREIGN KEY (employee_id)
+    REFERENCES employees (id);
@@ -0,0 +1,16 @@
+-- 同じ従業員が同じ日報に重複していいねできないよう、一意制約を追加する
+-- 制約の追加前に作成された重複データは、最初のいいね(idが最小のもの)のみ残して削除し、日報のいいね数を数え直す
+
+-- (MySQLでは削除対象のテーブルをサブクエリで直接参照できないため、集計結果を導出表として参照する)
+DELETE FROM likes
+WHERE id NOT IN (
+    SELECT keep.id FROM (
+        SELECT MIN(l.id) AS id FROM likes l GROUP BY l.report_id, l.employee_id
+    ) keep
+);
+
+UPDATE reports
+SET number_of_likes = (SELECT COUNT(*) FROM likes l WHERE l.report_id = reports.id);
+
+ALTER TABLE likes
+    ADD CONSTRAINT uk_likes_rep_emp UNIQUE (report_id, employee_id);
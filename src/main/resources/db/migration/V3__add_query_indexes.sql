@@ -0,0 +1,25 @@
+-- JpaConstの名前付きクエリ(Q_*_DEF)の検索条件・並び順に合わせたインデックス
+-- (InnoDBのセカンダリインデックスは末尾に主キー(id)を含むため、idでの並び替え・範囲指定にも使用できる)
+--
+-- 既存のインデックスで対応済みのクエリ
+--   UK_3um79qgwg340lpaw7phtwudtc (code)                     : Q_EMP_GET_BY_CODE, Q_EMP_COUNT_RESISTERED_BY_CODE
+--   uk_likes_rep_emp          (report_id, employee_id)      : Q_LIKE_COUNT_MINE_BY_EMP, Q_LIKE_DELETE_MINE, Q_LIKE_COUNT_ALL_MINE, Q_REP_RECONCILE_LIKE_COUNT
+--   uk_feeds_emp_rep          (employee_id, report_id)      : Q_REP_GET_ALL_FOLLOWING(_OLDER), Q_FEED_REMOVE_FOLLOWING, Q_FEED_COUNT_ALL_MINE
+--   uk_counters_name_target   (counter_name, target_id)     : Q_COUNTER_GET, Q_COUNTER_ADD, Q_COUNTER_UPSERT, Q_COUNTER_RECOUNT_*
+--   主キー                                                  : Q_EMP_GET_ALL, Q_REP_GET_ALL(_OLDER), Q_REP_GET_LIKE_COUNT, Q_REP_ADD_LIKE_COUNT
+
+-- Q_FOLLOW_COUNT_ALL_MINE, Q_FOLLOW_COUNT_BY_EMPS, Q_FOLLOW_DELETE_BY_EMPS, Q_FEED_ADD_FOLLOWING
+-- フォローしている従業員を取得する・フォロー済みかどうか判定する
+CREATE INDEX idx_following_emps ON following (following_employee_id, followed_employee_id);
+
+-- Q_REP_GET_ALL_MINE(_OLDER), Q_REP_COUNT_ALL_MINE, Q_REP_COUNT_GROUP_BY_EMP, Q_FEED_REMOVE_FOLLOWING
+-- 従業員ごとの日報をidの降順で取得・件数を集計する
+CREATE INDEX idx_reports_emp_id ON reports (employee_id, id);
+
+-- Q_LIKE_GET_ALL_MINE
+-- 日報ごとのいいねをidの降順で取得する
+CREATE INDEX idx_likes_rep_id ON likes (report_id, id);
+
+-- Q_FEED_FAN_OUT, Q_FEED_ADD_FOLLOWING
+-- 日報の作成者をフォローしている従業員を取得する(フォローした従業員をインデックスのみで取得する)
+CREATE INDEX idx_following_followed ON following (followed_employee_id, following_employee_id);
@@ -0,0 +1,19 @@
+-- タイムライン(フォローしている従業員の日報)を日報の登録時に展開して保持する
+CREATE TABLE feeds (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    employee_id INTEGER NOT NULL,
+    report_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_feeds_emp_rep UNIQUE (employee_id, report_id),
+    CONSTRAINT fk_feeds_employee FOREIGN KEY (employee_id) REFERENCES employees (id),
+    CONSTRAINT fk_feeds_report FOREIGN KEY (report_id) REFERENCES reports (id)
+) ENGINE=InnoDB;
+
+-- タイムライン(feeds)の追加前に作成されたDBでは、既存のフォローに対応するタイムラインが空のため登録する
+INSERT INTO feeds (employee_id, report_id)
+SELECT DISTINCT f.following_employee_id, r.id
+FROM following f
+JOIN reports r ON r.employee_id = f.followed_employee_id
+WHERE NOT EXISTS (
+    SELECT 1 FROM feeds fd WHERE fd.employee_id = f.following_employee_id AND fd.report_id = r.id
+);
@@ -0,0 +1,10 @@
+-- 一覧画面の件数表示に使用する集計値(値は起動時の再計算、または最初の参照時に元のテーブルから数えて登録する)
+CREATE TABLE counters (
+    id INTEGER NOT NULL AUTO_INCREMENT,
+    counter_name VARCHAR(64) NOT NULL,
+    target_id INTEGER NOT NULL,
+    counter_value BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_counters_name_target UNIQUE (counter_name, target_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,2 @@
+-- パスワードのハッシュ値に方式・コスト・ソルトを含めるため、列の長さを広げる
+ALTER TABLE employees MODIFY password VARCHAR(255) NOT NULL;
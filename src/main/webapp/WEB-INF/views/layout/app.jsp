@@ -3,6 +3,7 @@
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core"%>
 <%@ page import="constants.ForwardConst"%>
 <%@ page import="constants.AttributeConst"%>
+<%@ page import="constants.PropertyConst"%>
 
 <c:set var="actTop" value="${ForwardConst.ACT_TOP.getValue()}" />
 <c:set var="actEmp" value="${ForwardConst.ACT_EMP.getValue()}" />
@@ -13,13 +14,22 @@
 <c:set var="commShowTimeline" value="${ForwardConst.CMD_SHOWTIMELINE.getValue()}" />
 <c:set var="commOut" value="${ForwardConst.CMD_LOGOUT.getValue()}" />
 
+<c:set var="assetsCss" value="${applicationScope[PropertyConst.ASSETS_CSS.getValue()]}" />
+
 <!DOCTYPE html>
 <html lang="ja">
 <head>
 <meta charset="UTF-8">
 <title><c:out value="日報管理システム" /></title>
-<link rel="stylesheet" href="<c:url value='/css/reset.css' />">
-<link rel="stylesheet" href="<c:url value='/css/style.css' />">
+<c:choose>
+    <c:when test="${assetsCss != null}">
+        <link rel="stylesheet" href="<c:url value='${assetsCss}' />">
+    </c:when>
+    <c:otherwise>
+        <link rel="stylesheet" href="<c:url value='/css/reset.css' />">
+        <link rel="stylesheet" href="<c:url value='/css/style.css' />">
+    </c:otherwise>
+</c:choose>
 </head>
 <body>
     <div id="wrapper">
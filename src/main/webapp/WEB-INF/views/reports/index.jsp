@@ -26,57 +26,74 @@
             </script>
         </c:if>
         <h2>日報 一覧</h2>
-        <table id="report_list">
-            <tbody>
-                <tr>
-                    <th class="report_name">氏名</th>
-                    <th class="report_date">日付</th>
-                    <th class="report_title">タイトル</th>
-                    <th class="report_likes">いいね数</th>
-                    <th class="report_action">操作</th>
-                </tr>
-                <c:forEach var="report" items="${reports}" varStatus="status">
-                    <fmt:parseDate value="${report.reportDate}" pattern="yyyy-MM-dd"
-                        var="reportDay" type="date" />
+        <%-- 一覧部分は全従業員で共通のため、描画済みのHTMLがある場合はそのまま表示する --%>
+        <c:if test="${report_list_html == null}">
+            <c:set var="report_list_html" scope="request">
+                <table id="report_list">
+                    <tbody>
+                        <tr>
+                            <th class="report_name">氏名</th>
+                            <th class="report_date">日付</th>
+                            <th class="report_title">タイトル</th>
+                            <th class="report_likes">いいね数</th>
+                            <th class="report_action">操作</th>
+                        </tr>
+                        <c:forEach var="report" items="${reports}" varStatus="status">
+                            <fmt:parseDate value="${report.reportDate}" pattern="yyyy-MM-dd"
+                                var="reportDay" type="date" />
 
-                    <tr class="row${status.count % 2}">
-                        <td class="report_name"><c:out
-                                value="${report.employee.name}" /></td>
-                        <td class="report_date"><fmt:formatDate value='${reportDay}'
-                                pattern='yyyy-MM-dd' /></td>
-                        <td class="report_title">${report.title}</td>
-                        <td class="report_likes"><c:choose>
-                                <c:when test="${report.likeCount == 0}">
-                                    <c:out value="${report.likeCount}" />
-                                </c:when>
-                                <c:otherwise>
-                                    <a
-                                        href="<c:url value='?action=${actRep}&command=${commShowLikes}&id=${report.id}' />">${report.likeCount}</a>
-                                </c:otherwise>
-                            </c:choose></td>
-                        <td class="report_action"><a
-                            href="<c:url value='?action=${actRep}&command=${commShow}&id=${report.id}' />">詳細を見る</a></td>
-                    </tr>
-                </c:forEach>
-            </tbody>
-        </table>
+                            <tr class="row${status.count % 2}">
+                                <td class="report_name"><c:out
+                                        value="${report.employee.name}" /></td>
+                                <td class="report_date"><fmt:formatDate value='${reportDay}'
+                                        pattern='yyyy-MM-dd' /></td>
+                                <td class="report_title">${report.title}</td>
+                                <td class="report_likes"><c:choose>
+                                        <c:when test="${report.likeCount == 0}">
+                                            <c:out value="${report.likeCount}" />
+                                        </c:when>
+                                        <c:otherwise>
+                                            <a
+                                                href="<c:url value='?action=${actRep}&command=${commShowLikes}&id=${report.id}' />">${report.likeCount}</a>
+                                        </c:otherwise>
+                                    </c:choose></td>
+                                <td class="report_action"><a
+                                    href="<c:url value='?action=${actRep}&command=${commShow}&id=${report.id}' />">詳細を見る</a></td>
+                            </tr>
+                        </c:forEach>
+                    </tbody>
+                </table>
 
-        <div id="pagination">
-            （全 ${reports_count} 件）<br />
-            <c:forEach var="i" begin="1"
-                end="${((reports_count - 1) / maxRow) + 1}" step="1">
-                <c:choose>
-                    <c:when test="${i == page}">
-                        <c:out value="${i}" />&nbsp;
-                    </c:when>
-                    <c:otherwise>
+                <div id="pagination">
+                    （全 ${reports_count} 件）<br />
+                    <c:choose>
+                        <c:when test="${cursor != null}">
+                            <a href="<c:url value='?action=${actRep}&command=${commIdx}' />">最新</a>&nbsp;
+                        </c:when>
+                        <c:otherwise>
+                            <c:forEach var="i" begin="1"
+                                end="${((reports_count - 1) / maxRow) + 1}" step="1">
+                                <c:choose>
+                                    <c:when test="${i == page}">
+                                        <c:out value="${i}" />&nbsp;
+                                    </c:when>
+                                    <c:otherwise>
+                                        <a
+                                            href="<c:url value='?action=${actRep}&command=${commIdx}&page=${i}' />"><c:out
+                                                value="${i}" /></a>&nbsp;
+                                    </c:otherwise>
+                                </c:choose>
+                            </c:forEach>
+                        </c:otherwise>
+                    </c:choose>
+                    <c:if test="${next_cursor != null}">
                         <a
-                            href="<c:url value='?action=${actRep}&command=${commIdx}&page=${i}' />"><c:out
-                                value="${i}" /></a>&nbsp;
-                    </c:otherwise>
-                </c:choose>
-            </c:forEach>
-        </div>
+                            href="<c:url value='?action=${actRep}&command=${commIdx}&cursor=${next_cursor}' />">次へ</a>
+                    </c:if>
+                </div>
+            </c:set>
+        </c:if>
+        ${report_list_html}
         <p>
             <a href="<c:url value='?action=${actRep}&command=${commNew}' />">新規日報の登録</a>
         </p>
@@ -8,6 +8,7 @@
 <c:set var="commIdx" value="${ForwardConst.CMD_INDEX.getValue()}" />
 <c:set var="commEdt" value="${ForwardConst.CMD_EDIT.getValue()}" />
 <c:set var="commLike" value="${ForwardConst.CMD_LIKE.getValue()}" />
+<c:set var="commUnlike" value="${ForwardConst.CMD_UNLIKE.getValue()}" />
 <c:set var="commFollow" value="${ForwardConst.CMD_FOLLOW.getValue()}" />
 <c:set var="commUnfollow" value="${ForwardConst.CMD_UNFOLLOW.getValue()}" />
 
@@ -69,6 +70,12 @@
                             href="<c:url value='?action=${actRep}&command=${commLike}&id=${report.id}' />">この日報にいいねする</a>
                     </p>
                 </c:if>
+                <c:if test="${already_liked == true}">
+                    <p>
+                        <a
+                            href="<c:url value='?action=${actRep}&command=${commUnlike}&id=${report.id}' />">この日報のいいねを取り消す</a>
+                    </p>
+                </c:if>
                 <c:if test="${already_followed == false}">
                     <p>
                         <a
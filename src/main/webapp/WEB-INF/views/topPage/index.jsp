@@ -56,19 +56,30 @@
 
         <div id="pagination">
             （全 ${reports_count} 件）<br />
-            <c:forEach var="i" begin="1"
-                end="${((reports_count - 1) / maxRow) + 1}" step="1">
-                <c:choose>
-                    <c:when test="${i == page}">
-                        <c:out value="${i}" />&nbsp;
-                    </c:when>
-                    <c:otherwise>
-                        <a
-                            href="<c:url value='?action=${actTop}&command=${commIdx}&page=${i}' />"><c:out
-                                value="${i}" /></a>&nbsp;
-                    </c:otherwise>
-                </c:choose>
-            </c:forEach>
+            <c:choose>
+                <c:when test="${cursor != null}">
+                    <a href="<c:url value='?action=${actTop}&command=${commIdx}' />">最新</a>&nbsp;
+                </c:when>
+                <c:otherwise>
+                    <c:forEach var="i" begin="1"
+                        end="${((reports_count - 1) / maxRow) + 1}" step="1">
+                        <c:choose>
+                            <c:when test="${i == page}">
+                                <c:out value="${i}" />&nbsp;
+                            </c:when>
+                            <c:otherwise>
+                                <a
+                                    href="<c:url value='?action=${actTop}&command=${commIdx}&page=${i}' />"><c:out
+                                        value="${i}" /></a>&nbsp;
+                            </c:otherwise>
+                        </c:choose>
+                    </c:forEach>
+                </c:otherwise>
+            </c:choose>
+            <c:if test="${next_cursor != null}">
+                <a
+                    href="<c:url value='?action=${actTop}&command=${commIdx}&cursor=${next_cursor}' />">次へ</a>
+            </c:if>
         </div>
         <p>
             <a href="<c:url value='?action=${actRep}&command=${commNew}' />">新規日報の登録</a>
@@ -0,0 +1,188 @@
+package services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+
+import constants.JpaConst;
+import models.Counter;
+import models.Employee;
+import models.Report;
+import utils.DBUtil;
+
+/**
+ * 集計値の登録・加算・再計算が、登録済みの行や他のエンティティの二次キャッシュと矛盾しないことを確認するテスト
+ */
+class CounterServiceTest extends ServiceTestBase {
+
+    /**
+     * テストごとに従業員コードが重複しないようにする連番
+     */
+    private static int sequence;
+
+    @Test
+    void getRegistersMissingCounterOnce() {
+        int employeeId = createEmployeeWithReports(2);
+
+        CounterService service = new CounterService();
+        try {
+            assertEquals(2, service.get(JpaConst.COUNTER_REP_MINE, employeeId));
+            assertEquals(2, service.get(JpaConst.COUNTER_REP_MINE, employeeId));
+        } finally {
+            service.close();
+        }
+        assertEquals(1, countRows(JpaConst.COUNTER_REP_MINE, employeeId));
+    }
+
+    @Test
+    void incrementRegistersMissingCounter() {
+        int employeeId = createEmployeeWithReports(3);
+
+        CounterService service = new CounterService();
+        try {
+            increment(service, JpaConst.COUNTER_REP_MINE, employeeId);
+            assertEquals(3, service.get(JpaConst.COUNTER_REP_MINE, employeeId));
+
+            increment(service, JpaConst.COUNTER_REP_MINE, employeeId);
+            assertEquals(4, service.get(JpaConst.COUNTER_REP_MINE, employeeId));
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    void reconcileRecountsDriftedCounters() {
+        int withReports = createEmployeeWithReports(2);
+        int withoutReports = createEmployeeWithReports(0);
+
+        CounterService service = new CounterService();
+        try {
+            //登録済みの集計値をずらす(日報のない従業員は、日報の削除などで件数が残った状態にする)
+            service.get(JpaConst.COUNTER_REP_MINE, withReports);
+            service.get(JpaConst.COUNTER_REP_ALL, JpaConst.COUNTER_TARGET_NONE);
+            inTransaction(em -> {
+                em.persist(new Counter(null, JpaConst.COUNTER_REP_MINE, withoutReports, 5L, LocalDateTime.now()));
+                em.createQuery("UPDATE Counter AS c SET c.value = c.value + 99").executeUpdate();
+            });
+
+            service.reconcile();
+
+            assertEquals(2, service.get(JpaConst.COUNTER_REP_MINE, withReports));
+            assertEquals(0, service.get(JpaConst.COUNTER_REP_MINE, withoutReports));
+            assertEquals(countAll("Report"), service.get(JpaConst.COUNTER_REP_ALL, JpaConst.COUNTER_TARGET_NONE));
+            assertEquals(countAll("Employee"), service.get(JpaConst.COUNTER_EMP_ALL, JpaConst.COUNTER_TARGET_NONE));
+        } finally {
+            service.close();
+        }
+        assertEquals(1, countRows(JpaConst.COUNTER_REP_MINE, withReports));
+    }
+
+    @Test
+    void reconcileRecountsDriftedLikeCounts() {
+        createEmployeeWithReports(2);
+
+        //全ての日報のいいね数をずらす
+        inTransaction(em -> em.createQuery("UPDATE Report AS r SET r.likeCount = r.likeCount + 3").executeUpdate());
+
+        CounterService service = new CounterService();
+        try {
+            service.reconcile();
+        } finally {
+            service.close();
+        }
+
+        EntityManager em = DBUtil.createEntityManager();
+        try {
+            long drifted = em.createQuery("SELECT COUNT(r) FROM Report AS r WHERE r.likeCount <> (SELECT COUNT(l) FROM Like AS l WHERE l.report = r)", Long.class)
+                    .getSingleResult();
+            assertEquals(0, drifted);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void registeringCounterKeepsEmployeeCache() {
+        int employeeId = createEmployeeWithReports(1);
+
+        EmployeeService employeeService = new EmployeeService();
+        try {
+            employeeService.findOne(employeeId);
+        } finally {
+            employeeService.close();
+        }
+        Cache cache = DBUtil.createEntityManager().getEntityManagerFactory().getCache();
+        assertTrue(cache.contains(Employee.class, employeeId));
+
+        CounterService service = new CounterService();
+        try {
+            increment(service, JpaConst.COUNTER_REP_MINE, employeeId);
+        } finally {
+            service.close();
+        }
+        assertTrue(cache.contains(Employee.class, employeeId), "employee cache was evicted");
+    }
+
+    /**
+     * 元データの登録と同様に、トランザクション内で集計値に1を加算する
+     */
+    private static void increment(CounterService service, String name, int targetId) {
+        EntityManager em = service.em;
+        em.getTransaction().begin();
+        service.increment(name, targetId);
+        em.getTransaction().commit();
+    }
+
+    /**
+     * 集計値を登録せずに従業員と日報を登録する
+     * @param reports 登録する日報の件数
+     * @return 従業員のid
+     */
+    private static int createEmployeeWithReports(int reports) {
+        LocalDateTime now = LocalDateTime.now();
+        int n = ++sequence;
+        Employee employee = new Employee(null, "counter" + n, "counter" + n, "password", 0, now, now, 0);
+        inTransaction(em -> {
+            em.persist(employee);
+            for (int i = 0; i < reports; i++) {
+                em.persist(new Report(null, employee, LocalDate.now(), "title" + i, "content" + i, now, now, 0));
+            }
+        });
+        return employee.getId();
+    }
+
+    /**
+     * 指定した種類・対象の集計値の行数を取得する
+     */
+    private static long countRows(String name, int targetId) {
+        EntityManager em = DBUtil.createEntityManager();
+        try {
+            return em.createQuery("SELECT COUNT(c) FROM Counter AS c WHERE c.name = :name AND c.targetId = :target", Long.class)
+                    .setParameter("name", name)
+                    .setParameter("target", targetId)
+                    .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * 指定したエンティティの件数を取得する
+     */
+    private static long countAll(String entity) {
+        EntityManager em = DBUtil.createEntityManager();
+        try {
+            return em.createQuery("SELECT COUNT(x) FROM " + entity + " AS x", Long.class).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.PersistenceException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import actions.views.EmployeeView;
+import actions.views.LikeView;
+import actions.views.ReportView;
+import models.Employee;
+import models.Report;
+
+/**
+ * いいねの登録時の制約違反のうち、重複したいいねのみを「いいね済み」として扱うことを確認するテスト
+ */
+class LikeServiceTest extends ServiceTestBase {
+
+    /**
+     * いいねする従業員のid、いいねされる日報のid
+     */
+    private static int employeeId;
+    private static int reportId;
+
+    @BeforeAll
+    static void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        Employee employee = new Employee(null, "like0", "like0", "password", 0, now, now, 0);
+        Report report = new Report(null, employee, LocalDate.now(), "title", "content", now, now, 0);
+        inTransaction(em -> {
+            em.persist(employee);
+            em.persist(report);
+        });
+
+        employeeId = employee.getId();
+        reportId = report.getId();
+    }
+
+    @Test
+    void duplicateLikeIsRejected() {
+        ReportView report = findReport(reportId);
+        EmployeeView employee = findEmployee(employeeId);
+
+        LikeService service = new LikeService();
+        try {
+            assertTrue(service.create(new LikeView(null, report, employee, null, null)));
+            assertFalse(service.create(new LikeView(null, report, employee, null, null)));
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    void otherConstraintViolationIsThrown() {
+        ReportView report = findReport(reportId);
+
+        //存在しない従業員によるいいね(外部キー制約違反)
+        EmployeeView missing = findEmployee(employeeId);
+        missing.setId(Integer.MAX_VALUE);
+
+        LikeService service = new LikeService();
+        try {
+            assertThrows(PersistenceException.class,
+                    () -> service.create(new LikeView(null, report, missing, null, null)));
+        } finally {
+            service.close();
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import actions.views.EmployeeView;
+import actions.views.FollowingView;
+import actions.views.LikeView;
+import actions.views.ReportSummaryView;
+import actions.views.ReportView;
+import constants.JpaConst;
+import models.Employee;
+import models.Following;
+import models.Like;
+import models.Report;
+import utils.DBUtil;
+
+/**
+ * 一覧画面(いいね一覧・フォロー一覧・日報一覧)の1ページ分の取得で実行するSQLの回数が、件数に比例して増えないことを確認するテスト
+ * 関連エンティティを1件ずつ取得する処理(N+1)が混入した場合に失敗させる
+ */
+class ListQueryStatementCountTest extends ServiceTestBase {
+
+    /**
+     * 従業員の件数(1ページの表示件数より多くする)
+     */
+    private static final int EMPLOYEES = JpaConst.ROW_PER_PAGE + 5;
+
+    /**
+     * 1ページの取得で許容するSQLの回数
+     */
+    private static final long MAX_STATEMENTS_PER_PAGE = 2;
+
+    /**
+     * いいね・フォローを登録する従業員のid、いいねを登録する日報のid
+     */
+    private static int employeeId;
+    private static int reportId;
+
+    @BeforeAll
+    static void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        Employee[] employees = new Employee[EMPLOYEES];
+        Report[] reports = new Report[EMPLOYEES];
+        inTransaction(em -> {
+            for (int i = 0; i < EMPLOYEES; i++) {
+                employees[i] = new Employee(null, "e" + i, "employee" + i, "password", 0, now, now, 0);
+                em.persist(employees[i]);
+
+                //日報は従業員ごとに1件ずつ登録する(作成者が全て異なる)
+                reports[i] = new Report(null, employees[i], LocalDate.now(), "title" + i, "content" + i, now, now, 0);
+                em.persist(reports[i]);
+            }
+
+            //最初の従業員の日報に全員がいいねし、最初の従業員が他の全員をフォローする
+            for (int i = 0; i < EMPLOYEES; i++) {
+                em.persist(new Like(null, reports[0], employees[i], now, now));
+                if (i > 0) {
+                    em.persist(new Following(null, employees[0], employees[i], now, now));
+                }
+            }
+            reports[0].setLikeCount(EMPLOYEES);
+        });
+
+        employeeId = employees[0].getId();
+        reportId = reports[0].getId();
+    }
+
+    @Test
+    void likeListIsBounded() {
+        ReportView report = findReport(reportId);
+
+        LikeService service = new LikeService();
+        try {
+            List<LikeView> likes = assertBounded(() -> service.getMinePerPage(report, 1));
+            assertEquals(JpaConst.ROW_PER_PAGE, likes.size());
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    void followingListIsBounded() {
+        EmployeeView employee = findEmployee(employeeId);
+
+        FollowingService service = new FollowingService();
+        try {
+            List<FollowingView> followings = assertBounded(() -> service.getAllMine(employee));
+            assertEquals(EMPLOYEES - 1, followings.size());
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    void reportListIsBounded() {
+        EmployeeView employee = findEmployee(employeeId);
+
+        ReportService service = new ReportService();
+        try {
+            //次ページの有無の判定用に1件多く取得する
+            List<ReportSummaryView> reports = assertBounded(() -> service.getAllPerPage(1));
+            assertEquals(JpaConst.ROW_PER_PAGE + 1, reports.size());
+
+            List<ReportSummaryView> mine = assertBounded(() -> service.getMinePerPage(employee, 1));
+            assertEquals(1, mine.size());
+        } finally {
+            service.close();
+        }
+    }
+
+    /**
+     * 処理の実行中に発行されたSQLの回数が上限以下であることを確認する
+     * @param query 一覧を取得する処理
+     * @return 取得した一覧
+     */
+    private static <T> T assertBounded(Supplier<T> query) {
+        //二次キャッシュにある従業員は取得されないため、キャッシュを空にして計測する
+        EntityManager em = DBUtil.createEntityManager();
+        em.getEntityManagerFactory().getCache().evictAll();
+        em.close();
+
+        Statistics stats = DBUtil.getStatistics();
+        long before = stats.getPrepareStatementCount();
+
+        T result = query.get();
+
+        long statements = stats.getPrepareStatementCount() - before;
+        assertTrue(statements <= MAX_STATEMENTS_PER_PAGE,
+                "statements per page: " + statements + " (max " + MAX_STATEMENTS_PER_PAGE + ")");
+        return result;
+    }
+
+}
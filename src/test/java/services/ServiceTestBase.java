@@ -0,0 +1,72 @@
+package services;
+
+import java.util.function.Consumer;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+
+import actions.views.EmployeeView;
+import actions.views.ReportView;
+import utils.DBUtil;
+
+/**
+ * サービスクラスのテストで共通して使用するDBの準備・後始末と、テストデータの登録・取得を行うクラス
+ */
+abstract class ServiceTestBase {
+
+    @BeforeAll
+    static void initDatabase() {
+        DBUtil.init();
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        DBUtil.close();
+    }
+
+    /**
+     * 1つのトランザクション内でテストデータを登録・更新する
+     * @param work EntityManagerを使用してデータを登録・更新する処理
+     */
+    static void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = DBUtil.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            work.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * テストの条件とする日報を取得する
+     * @param id 日報のid
+     * @return 日報
+     */
+    static ReportView findReport(int id) {
+        ReportService service = new ReportService();
+        try {
+            return service.findOne(id);
+        } finally {
+            service.close();
+        }
+    }
+
+    /**
+     * テストの条件とする従業員を取得する
+     * @param id 従業員のid
+     * @return 従業員
+     */
+    static EmployeeView findEmployee(int id) {
+        EmployeeService service = new EmployeeService();
+        try {
+            return service.findOne(id);
+        } finally {
+            service.close();
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.Persistence;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import constants.JpaConst;
+
+/**
+ * マイグレーション導入前にHibernateの自動生成で作成したDBに、マイグレーションを適用できることを確認するテスト
+ */
+class MigrationTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:baseline;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void upgradeFromAutoGeneratedSchema() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(JDBC_URL);
+        dataSource.setUser("sa");
+
+        try (Connection con = dataSource.getConnection(); Statement st = con.createStatement()) {
+            //自動生成のスキーマに、一意制約がない状態で重複して登録されたいいねを含むデータを登録する
+            st.execute("RUNSCRIPT FROM 'classpath:db/baseline_schema.sql'");
+            st.execute("INSERT INTO employees (id, admin_flag, code, created_at, delete_flag, name, password, updated_at)"
+                    + " VALUES (1, 1, 'e1', NOW(), 0, 'A', 'x', NOW()), (2, 0, 'e2', NOW(), 0, 'B', 'x', NOW())");
+            st.execute("INSERT INTO reports (id, content, created_at, number_of_likes, report_date, title, updated_at, employee_id)"
+                    + " VALUES (1, 'c', NOW(), 3, CURRENT_DATE, 't', NOW(), 1), (2, 'c', NOW(), 1, CURRENT_DATE, 't', NOW(), 2)");
+            st.execute("INSERT INTO likes (id, created_at, updated_at, employee_id, report_id)"
+                    + " VALUES (1, NOW(), NOW(), 2, 1), (2, NOW(), NOW(), 2, 1), (3, NOW(), NOW(), 2, 1), (4, NOW(), NOW(), 1, 2)");
+            st.execute("INSERT INTO following (created_at, updated_at, followed_employee_id, following_employee_id)"
+                    + " VALUES (NOW(), NOW(), 1, 2)");
+        }
+
+        DBUtil.migrate(dataSource);
+
+        try (Connection con = dataSource.getConnection(); Statement st = con.createStatement()) {
+            //自動生成のスキーマをV1とみなし、以降のマイグレーションが全て適用される
+            List<String> versions = select(st, "SELECT \"version\" FROM \"flyway_schema_history\""
+                    + " WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"");
+            assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6"), versions);
+
+            //重複したいいねは最初の1件のみ残り、いいね数が数え直される
+            assertEquals(Arrays.asList("1", "4"), select(st, "SELECT id FROM likes ORDER BY id"));
+            assertEquals(Arrays.asList("1", "1"), select(st, "SELECT number_of_likes FROM reports ORDER BY id"));
+            assertThrows(SQLException.class, () -> st.execute("INSERT INTO likes (created_at, updated_at, employee_id, report_id)"
+                    + " VALUES (NOW(), NOW(), 2, 1)"));
+
+            //既存のフォローに対応するタイムラインが登録される
+            assertEquals(Arrays.asList("2:1"), select(st, "SELECT CONCAT(employee_id, ':', report_id) FROM feeds"));
+            assertEquals(Arrays.asList("0"), select(st, "SELECT COUNT(*) FROM counters"));
+        }
+
+        //マイグレーション後のスキーマがエンティティの定義と一致する
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.driver", "org.h2.Driver");
+        properties.put("javax.persistence.jdbc.url", JDBC_URL);
+        properties.put("javax.persistence.jdbc.user", "sa");
+        properties.put("javax.persistence.jdbc.password", "");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.connection.provider_class",
+                "org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl");
+        properties.put("hibernate.hbm2ddl.auto", "validate");
+        Persistence.createEntityManagerFactory(JpaConst.PERSISTENCE_UNIT_NAME, properties).close();
+    }
+
+    /**
+     * 検索結果の1列目を文字列のリストで返却する
+     * @param st Statement
+     * @param sql SQL
+     * @return 検索結果
+     * @throws SQLException
+     */
+    private static List<String> select(Statement st, String sql) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,72 @@
+-- マイグレーション導入前にHibernateの自動生成(javax.persistence.schema-generation.database.action=create)で作成されたスキーマ
+-- (MySQL8Dialectで出力したDDL MigrationTestでベースラインとして使用する)
+
+create table employees (
+   id integer not null auto_increment,
+    admin_flag integer not null,
+    code varchar(255) not null,
+    created_at datetime(6) not null,
+    delete_flag integer not null,
+    name varchar(255) not null,
+    password varchar(64) not null,
+    updated_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table following (
+   id integer not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    followed_employee_id integer not null,
+    following_employee_id integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table likes (
+   id integer not null auto_increment,
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    employee_id integer not null,
+    report_id integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table reports (
+   id integer not null auto_increment,
+    content longtext not null,
+    created_at datetime(6) not null,
+    number_of_likes integer not null,
+    report_date date not null,
+    title varchar(255) not null,
+    updated_at datetime(6) not null,
+    employee_id integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table employees 
+   add constraint UK_3um79qgwg340lpaw7phtwudtc unique (code);
+
+alter table following 
+   add constraint FKatl61w4gl1pv4vyq8rvpmyi11 
+   foreign key (followed_employee_id) 
+   references employees (id);
+
+alter table following 
+   add constraint FKjk3e0kahofy60oyp1hc3f0nbq 
+   foreign key (following_employee_id) 
+   references employees (id);
+
+alter table likes 
+   add constraint FKj1c196w92a949gsjfao48uldc 
+   foreign key (employee_id) 
+   references employees (id);
+
+alter table likes 
+   add constraint FK1io2phls8opufu7f6w8nkx8ul 
+   foreign key (report_id) 
+   references reports (id);
+
+alter table reports 
+   add constraint FK7m58c0h3phjcm6bco7aqikfen 
+   foreign key (employee_id) 
+   references employees (id);